@@ -6,12 +6,14 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import com.example.aos_backend.Repository.RoleRepository;
 import com.example.aos_backend.user.Role;
 
 @SpringBootApplication
 @EnableAsync
+@EnableScheduling
 @EnableJpaAuditing
 public class AosBackendApplication {
 
@@ -2,10 +2,15 @@
 package com.example.aos_backend.Controller;
 
 import com.example.aos_backend.Service.AdminServiceService;
+import com.example.aos_backend.Service.ServiceCatalog;
 import com.example.aos_backend.dto.ServiceDTO;
 import com.example.aos_backend.dto.CreateServiceRequest;
 import com.example.aos_backend.dto.UpdateServiceRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.validation.annotation.Validated;
@@ -21,11 +26,14 @@ public class AdminServiceController {
     @Autowired
     private AdminServiceService adminServiceService;
 
+    @Autowired
+    private ServiceCatalog serviceCatalog;
+
+    // Corps JSON déjà sérialisé par le catalogue : ni Hibernate ni Jackson sur ce chemin
     @GetMapping
-    public ResponseEntity<List<ServiceDTO>> getAllServicesForAdmin() {
+    public ResponseEntity<byte[]> getAllServicesForAdmin(@RequestHeader HttpHeaders requestHeaders) {
         try {
-            List<ServiceDTO> services = adminServiceService.getAllServicesForAdmin();
-            return ResponseEntity.ok(services);
+            return cached(serviceCatalog.all(), requestHeaders);
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.internalServerError().build();
@@ -33,11 +41,11 @@ public class AdminServiceController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ServiceDTO> getServiceById(@PathVariable Long id) {
+    public ResponseEntity<byte[]> getServiceById(@PathVariable Long id, @RequestHeader HttpHeaders requestHeaders) {
         try {
-            ServiceDTO service = adminServiceService.getServiceById(id);
+            ServiceCatalog.Entry service = serviceCatalog.byId(id);
             if (service != null) {
-                return ResponseEntity.ok(service);
+                return cached(service, requestHeaders);
             } else {
                 return ResponseEntity.notFound().build();
             }
@@ -47,6 +55,17 @@ public class AdminServiceController {
         }
     }
 
+    private static ResponseEntity<byte[]> cached(ServiceCatalog.Entry entry, HttpHeaders requestHeaders) {
+        if (requestHeaders.getIfNoneMatch().contains(entry.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(entry.etag()).build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .eTag(entry.etag())
+                .body(entry.body());
+    }
+
     @PostMapping
     public ResponseEntity<ServiceDTO> createService(@RequestBody @Validated CreateServiceRequest request) {
         try {
@@ -1,8 +1,16 @@
 package com.example.aos_backend.Controller;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.validation.annotation.Validated;
@@ -15,28 +23,70 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.example.aos_backend.Service.AuthService;
 import com.example.aos_backend.Service.PasswordChangeService;
+import com.example.aos_backend.security.LoginRateLimiter;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 @RestController
 @RequestMapping("/auth")
 @RequiredArgsConstructor
+@Slf4j
 @Tag(name = "Authentication")
 public class AuthenticationController {
+    private static final String LOGIN_RETRY_AFTER_SECONDS = "2";
 
     private final AuthService authService;
     private final PasswordChangeService passwordChangeService;
+    private final LoginRateLimiter loginRateLimiter;
 
+    /**
+     * Vérification du mot de passe hors des threads Tomcat ; 429 quand l'IP
+     * ou le compte dépasse son quota d'échecs, 503 quand le pool de hachage
+     * est saturé.
+     */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest request) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody LoginRequest request,
+            HttpServletRequest httpRequest) {
+        // Adresse du client, pas celle du proxy : voir server.forward-headers-strategy
+        String ip = httpRequest.getRemoteAddr();
+        long retryAfter = loginRateLimiter.tryAcquire(ip, request.getEmail());
+        if (retryAfter > 0) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                    .body("Too many login attempts"));
+        }
         try {
-            var response = authService.authenticate(request.getEmail(), request.getPassword());
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
+            return authService.authenticateAsync(request.getEmail(), request.getPassword())
+                    .<ResponseEntity<?>>thenApply(response -> {
+                        // Seuls les échecs sont décomptés
+                        loginRateLimiter.release(ip, request.getEmail());
+                        return ResponseEntity.ok(response);
+                    })
+                    .exceptionally(AuthenticationController::loginFailure);
+        } catch (RejectedExecutionException e) {
+            loginRateLimiter.release(ip, request.getEmail());
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, LOGIN_RETRY_AFTER_SECONDS)
+                    .build());
+        }
+    }
+
+    // 401 pour des identifiants refusés ; une panne (base, hachage) est une erreur serveur
+    private static ResponseEntity<?> loginFailure(Throwable e) {
+        Throwable cause = e;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof AuthenticationException && !(cause instanceof InternalAuthenticationServiceException)) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid credentials");
         }
+        log.error("Login failed", cause);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Login failed");
     }
 
     @PostMapping("/change-password")
@@ -1,38 +1,50 @@
 package com.example.aos_backend.Controller;
 
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.example.aos_backend.Service.DemandeService;
+import com.example.aos_backend.Service.DemandeTransitionService;
+import com.example.aos_backend.Service.DocumentContentService;
 import com.example.aos_backend.Notification.NotificationService;
 import com.example.aos_backend.user.NotificationType;
-import com.example.aos_backend.Util.DocumentUtil;
+import com.example.aos_backend.user.StatutDemande;
+import com.example.aos_backend.dto.CursorPageDTO;
 import com.example.aos_backend.dto.DemandeDTO;
+import com.example.aos_backend.dto.DemandeSearchResultDTO;
+import com.example.aos_backend.dto.DemandeTransitionDTO;
+import com.example.aos_backend.dto.DocumentRow;
 import com.example.aos_backend.dto.UpdateDemandeRequest;
 import com.example.aos_backend.dto.UserDTO;
-import com.example.aos_backend.user.Demande;
-import com.example.aos_backend.user.DocumentJustificatif;
 import com.example.aos_backend.user.Utilisateur;
 import com.example.aos_backend.Repository.UtilisateurRepository;
+import com.example.aos_backend.security.AuthenticatedUser;
+import com.example.aos_backend.security.CurrentUser;
+import com.example.aos_backend.storage.UploadPipeline;
 
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import lombok.RequiredArgsConstructor;
@@ -43,10 +55,15 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 @Slf4j
 public class DemandeController {
+    private static final String UPLOAD_RETRY_AFTER_SECONDS = "5";
+
     // Inject the DemandeService
     private final DemandeService demandeService;
     private final NotificationService notificationService;
+    private final DocumentContentService documentContentService;
     private final UtilisateurRepository utilisateurRepository;
+    private final UploadPipeline uploadPipeline;
+    private final DemandeTransitionService demandeTransitionService;
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -60,6 +77,39 @@ public class DemandeController {
 
     }
 
+    @GetMapping("/page")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CursorPageDTO<DemandeDTO>> getDemandesPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String statut,
+            @RequestParam(required = false) Long serviceId,
+            @RequestParam(required = false) Integer assignedToId) {
+        try {
+            return ResponseEntity.ok(demandeService.getDemandesPage(cursor, size, statut, serviceId, assignedToId));
+        } catch (IllegalArgumentException e) {
+            log.warn("Controller: invalid page request - {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CursorPageDTO<DemandeSearchResultDTO>> searchDemandes(
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String statut,
+            @RequestParam(required = false) Long serviceId,
+            @RequestParam(required = false) Integer assignedToId) {
+        try {
+            return ResponseEntity.ok(demandeService.searchDemandes(q, cursor, size, statut, serviceId, assignedToId));
+        } catch (IllegalArgumentException e) {
+            log.warn("Controller: invalid search request - {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('SUPPORT')")
     public ResponseEntity<DemandeDTO> getDemandeById(@PathVariable Long id) {
@@ -71,6 +121,13 @@ public class DemandeController {
         }
     }
 
+    // Historique des changements de statut, d'assignation et des dépassements de délai
+    @GetMapping("/{id}/transitions")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPPORT')")
+    public ResponseEntity<List<DemandeTransitionDTO>> getDemandeTransitions(@PathVariable Integer id) {
+        return ResponseEntity.ok(demandeTransitionService.getTransitions(id));
+    }
+
     @GetMapping("/{id}/service-data")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<Map<String, Object>> getDemandeServiceData(@PathVariable Long id) {
@@ -84,30 +141,74 @@ public class DemandeController {
 
     @GetMapping("/{demandeId}/documents/{documentId}")
     @PreAuthorize("isAuthenticated()")
-    @Transactional
-    public ResponseEntity<byte[]> downloadDocument(@PathVariable Long demandeId, @PathVariable Long documentId) {
-        Demande demande = demandeService.getDemandById(demandeId);
-
-        // First check in regular documents
-        Optional<DocumentJustificatif> documentOpt = demande.getDocumentsJustificatifs().stream()
-                .filter(doc -> doc.getId().equals(documentId))
-                .findFirst();
-
-        // If not found in regular documents, check response document
-        if (!documentOpt.isPresent() && demande.getDocumentReponse() != null &&
-                demande.getDocumentReponse().getId().equals(documentId)) {
-            documentOpt = Optional.of(demande.getDocumentReponse());
+    public ResponseEntity<StreamingResponseBody> downloadDocument(@PathVariable Long demandeId,
+            @PathVariable Long documentId,
+            @RequestHeader HttpHeaders requestHeaders) {
+        DocumentRow document = documentContentService.findJustificatif(documentId)
+                .filter(doc -> doc.getDemandeId().longValue() == demandeId)
+                .orElse(null);
+        if (document == null) {
+            return ResponseEntity.notFound().build();
         }
 
-        DocumentJustificatif document = documentOpt.orElseThrow(() -> new RuntimeException("Document non trouvé"));
+        // Le contenu d'un document est immuable : son id et sa date d'envoi suffisent comme validateur
+        String etag = "\"dj-" + document.getId() + "-"
+                + (document.getUploadedAt() != null ? document.getUploadedAt().toEpochSecond(ZoneOffset.UTC) : 0) + "\"";
+
+        if (requestHeaders.getIfNoneMatch().contains(etag) || requestHeaders.getIfNoneMatch().contains("*")) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
 
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.parseMediaType(document.getContentType()));
+        headers.setContentType(document.getContentType() != null
+                ? MediaType.parseMediaType(document.getContentType())
+                : MediaType.APPLICATION_OCTET_STREAM);
         headers.setContentDisposition(ContentDisposition.attachment().filename(document.getFileName()).build());
+        headers.setETag(etag);
 
-        byte[] content = DocumentUtil.decompressDocument(document.getContent());
+        Long size = document.getFileSize();
+        if (size == null) {
+            // Anciens documents sans taille connue : pas de support des plages
+            return ResponseEntity.ok().headers(headers)
+                    .body(out -> documentContentService.streamJustificatif(document, 0, -1, out));
+        }
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
 
-        return new ResponseEntity<>(content, HttpStatus.OK);
+        String ifRange = requestHeaders.getFirst(HttpHeaders.IF_RANGE);
+        List<HttpRange> ranges;
+        try {
+            ranges = ifRange == null || ifRange.equals(etag) ? requestHeaders.getRange() : List.of();
+        } catch (IllegalArgumentException e) {
+            ranges = List.of();
+        }
+
+        // Une seule plage est servie ; les requêtes multi-plages reçoivent le document complet
+        if (ranges.size() == 1) {
+            HttpRange range = ranges.get(0);
+            long start;
+            long end;
+            try {
+                start = range.getRangeStart(size);
+                end = range.getRangeEnd(size);
+            } catch (IllegalArgumentException e) {
+                start = size;
+                end = size - 1;
+            }
+            if (start >= size || start > end) {
+                headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE).headers(headers).build();
+            }
+            long offset = start;
+            long length = end - start + 1;
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            headers.setContentLength(length);
+            return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT).headers(headers)
+                    .body(out -> documentContentService.streamJustificatif(document, offset, length, out));
+        }
+
+        headers.setContentLength(size);
+        return ResponseEntity.ok().headers(headers)
+                .body(out -> documentContentService.streamJustificatif(document, 0, size, out));
     }
 
     @GetMapping("/support-users")
@@ -125,10 +226,11 @@ public class DemandeController {
 
     @PatchMapping("/{id}/assign/null")
     @PreAuthorize("hasAuthority('ROLE_ADMIN')")
-    public ResponseEntity<DemandeDTO> unassignRequest(@PathVariable Long id) {
+    public ResponseEntity<DemandeDTO> unassignRequest(@PathVariable Long id,
+            @CurrentUser AuthenticatedUser currentUser) {
         log.info("Controller: unassignRequest called - id: {}", id);
         try {
-            DemandeDTO updatedDemande = demandeService.assignRequest(id, null);
+            DemandeDTO updatedDemande = demandeService.assignRequest(id, null, currentUser.id());
             log.info("Controller: Unassign request successful");
             return ResponseEntity.ok(updatedDemande);
         } catch (IllegalArgumentException e) {
@@ -143,7 +245,8 @@ public class DemandeController {
 
     @PatchMapping("/{id}/assign/{userId}")
     @PreAuthorize("hasAuthority('ROLE_ADMIN')")
-    public ResponseEntity<DemandeDTO> assignRequest(@PathVariable Long id, @PathVariable Integer userId) {
+    public ResponseEntity<DemandeDTO> assignRequest(@PathVariable Long id, @PathVariable Integer userId,
+            @CurrentUser AuthenticatedUser currentUser) {
         log.info("Controller: assignRequest called - id: {}, userId: {}", id, userId);
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         log.info("Controller: Authentication - {}", auth);
@@ -154,7 +257,7 @@ public class DemandeController {
             log.info("Controller: Processing assign request");
 
             log.info("Controller: Calling demandeService.assignRequest");
-            DemandeDTO updatedDemande = demandeService.assignRequest(id, userId);
+            DemandeDTO updatedDemande = demandeService.assignRequest(id, userId, currentUser.id());
             log.info("Controller: Assign request successful");
 
             // Send notification to the assigned user
@@ -186,7 +289,7 @@ public class DemandeController {
     @PreAuthorize("hasRole('ADMIN') or hasRole('SUPPORT')")
     public ResponseEntity<Long> getRequestsCount() {
         try {
-            long count = demandeService.getAllDemandes().size();
+            long count = demandeService.countDemandes();
             return ResponseEntity.ok(count);
         } catch (Exception e) {
             e.printStackTrace();
@@ -198,9 +301,7 @@ public class DemandeController {
     @PreAuthorize("hasRole('ADMIN') or hasRole('SUPPORT')")
     public ResponseEntity<Long> getPendingRequestsCount() {
         try {
-            long count = demandeService.getAllDemandes().stream()
-                    .filter(d -> "EN_ATTENTE".equals(d.getStatut()))
-                    .count();
+            long count = demandeService.countDemandesByStatut(StatutDemande.EN_ATTENTE);
             return ResponseEntity.ok(count);
         } catch (Exception e) {
             e.printStackTrace();
@@ -212,10 +313,7 @@ public class DemandeController {
     @PreAuthorize("hasRole('ADMIN') or hasRole('SUPPORT')")
     public ResponseEntity<List<DemandeDTO>> getRecentRequests(@RequestParam(defaultValue = "5") int limit) {
         try {
-            List<DemandeDTO> recentRequests = demandeService.getAllDemandes().stream()
-                    .sorted((a, b) -> b.getDateSoumission().compareTo(a.getDateSoumission()))
-                    .limit(limit)
-                    .toList();
+            List<DemandeDTO> recentRequests = demandeService.getRecentDemandes(limit);
             return ResponseEntity.ok(recentRequests);
         } catch (Exception e) {
             e.printStackTrace();
@@ -226,21 +324,37 @@ public class DemandeController {
 
     @PatchMapping(value = "/{id}/update", consumes = "multipart/form-data")
     @PreAuthorize("hasRole('ADMIN') or hasRole('SUPPORT')")
-    public ResponseEntity<DemandeDTO> updateDemande(@PathVariable Long id,
+    public CompletableFuture<ResponseEntity<DemandeDTO>> updateDemande(@PathVariable Long id,
             @RequestPart UpdateDemandeRequest request,
-            @RequestPart(value = "files", required = false) List<MultipartFile> files) {
+            @RequestPart(value = "files", required = false) List<MultipartFile> files,
+            @CurrentUser AuthenticatedUser currentUser) {
         try {
-            DemandeDTO updatedDemande = demandeService.updateDemande(id, request, files);
+            demandeService.checkUpdateAllowed(id, request, currentUser);
 
-            notificationService.notifyUpdateDemande(updatedDemande);
+            return uploadPipeline.process(files, stored -> {
+                DemandeDTO updatedDemande = demandeService.updateDemande(id, request, stored, currentUser);
 
-            return ResponseEntity.ok(updatedDemande);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().body(null);
+                notificationService.notifyUpdateDemande(updatedDemande);
+
+                return ResponseEntity.ok(updatedDemande);
+            }).exceptionally(this::updateFailed);
+        } catch (RejectedExecutionException e) {
+            // File de traitement des fichiers pleine : le client réessaie plus tard
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, UPLOAD_RETRY_AFTER_SECONDS)
+                    .<DemandeDTO>build());
         } catch (Exception e) {
-            e.printStackTrace();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+            return CompletableFuture.completedFuture(updateFailed(e));
+        }
+    }
+
+    private ResponseEntity<DemandeDTO> updateFailed(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof IllegalArgumentException) {
+            return ResponseEntity.badRequest().body(null);
         }
+        log.error("Erreur lors de la mise à jour de la demande", cause);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
     }
 
     @GetMapping("/assigned/{userId}")
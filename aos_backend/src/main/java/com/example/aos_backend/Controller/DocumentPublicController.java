@@ -1,13 +1,11 @@
 package com.example.aos_backend.Controller;
 
-import com.example.aos_backend.Repository.AdminRepository;
 import com.example.aos_backend.Repository.DocumentPublicRepository;
-import com.example.aos_backend.Repository.UtilisateurRepository;
 import com.example.aos_backend.Service.DocumentPublicService;
 import com.example.aos_backend.dto.DocumentPublicDTO;
-import com.example.aos_backend.user.Admin;
+import com.example.aos_backend.security.AuthenticatedUser;
+import com.example.aos_backend.security.CurrentUser;
 import com.example.aos_backend.user.DocumentPublic;
-import com.example.aos_backend.user.Utilisateur;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -17,8 +15,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -33,8 +29,6 @@ import java.util.Optional;
 public class DocumentPublicController {
 
     private final DocumentPublicService documentPublicService;
-    private final UtilisateurRepository utilisateurRepository;
-    private final AdminRepository adminRepository;
     private final DocumentPublicRepository documentPublicRepository;
 
     @GetMapping
@@ -66,14 +60,11 @@ public class DocumentPublicController {
             @RequestParam("titre") String titre,
             @RequestParam("description") String description,
             @RequestParam("type") String type,
-            @RequestParam(value = "file", required = false) MultipartFile file) {
+            @RequestParam(value = "file", required = false) MultipartFile file,
+            @CurrentUser AuthenticatedUser currentUser) {
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String userEmail = authentication.getName();
-            Utilisateur user = utilisateurRepository.findByEmail(userEmail)
-                    .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
-
-            DocumentPublicDTO document = documentPublicService.createDocument(titre, description, type, file, user);
+            DocumentPublicDTO document = documentPublicService.createDocument(titre, description, type, file,
+                    currentUser.id());
             return ResponseEntity.status(HttpStatus.CREATED).body(document);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -87,20 +78,16 @@ public class DocumentPublicController {
             @RequestParam("titre") String titre,
             @RequestParam("description") String description,
             @RequestParam("type") String type,
-            @RequestParam(value = "file", required = false) MultipartFile file) {
+            @RequestParam(value = "file", required = false) MultipartFile file,
+            @CurrentUser AuthenticatedUser currentUser) {
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String userEmail = authentication.getName();
-            Utilisateur user = utilisateurRepository.findByEmail(userEmail)
-                    .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
-
             Optional<DocumentPublic> doc = documentPublicRepository.findById(id);
             if (doc.isEmpty()) {
                 return ResponseEntity.notFound().build();
             }
             DocumentPublic documentPublic = doc.get();
-            if (!documentPublic.getPublishedBy().getId().equals(user.getId())
-                    && adminRepository.findByUtilisateur(user).isEmpty()) {
+            if (!documentPublic.getPublishedBy().getId().equals(currentUser.id())
+                    && !currentUser.isAdmin()) {
 
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
 
@@ -117,16 +104,10 @@ public class DocumentPublicController {
 
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')OR hasRole('SUPPORT')")
-    public ResponseEntity<Void> deleteDocument(@PathVariable Long id) {
+    public ResponseEntity<Void> deleteDocument(@PathVariable Long id, @CurrentUser AuthenticatedUser currentUser) {
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String userEmail = authentication.getName();
-            Utilisateur user = utilisateurRepository.findByEmail(userEmail)
-                    .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
-
             // Vérifier que l'utilisateur est un admin
-            Optional<Admin> adminOpt = adminRepository.findByUtilisateur(user);
-            if (adminOpt.isEmpty()) {
+            if (!currentUser.isAdmin()) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
 
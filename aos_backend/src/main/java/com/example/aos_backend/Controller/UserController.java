@@ -16,8 +16,13 @@ import com.example.aos_backend.Repository.ReclamationRepository;
 import com.example.aos_backend.Repository.StorageRepository;
 import com.example.aos_backend.Repository.DocumentPublicRepository;
 import com.example.aos_backend.Repository.DemandeRepository;
+import com.example.aos_backend.Service.DemandeTransitionService;
+import com.example.aos_backend.Service.StatisticsService;
 import com.example.aos_backend.Service.UserManagementService;
 import com.example.aos_backend.dto.UserDTO;
+import com.example.aos_backend.security.AuthenticatedUser;
+import com.example.aos_backend.security.CurrentUser;
+import com.example.aos_backend.security.VerifiedTokenCache;
 import com.example.aos_backend.user.Demande;
 import com.example.aos_backend.user.DocumentJustificatif;
 import com.example.aos_backend.user.Utilisateur;
@@ -43,6 +48,9 @@ public class UserController {
     private final DocumentPublicRepository documentPublicRepository;
     private final DemandeRepository demandeRepository;
     private final StorageRepository documentJustificatifRepository;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final DemandeTransitionService demandeTransitionService;
+    private final StatisticsService statisticsService;
 
     @GetMapping
     public ResponseEntity<List<UserDTO>> getAllUsers() {
@@ -133,7 +141,7 @@ public class UserController {
 
     @DeleteMapping("/{id}")
     @Transactional
-    public ResponseEntity<Void> deleteUser(@PathVariable Integer id) {
+    public ResponseEntity<Void> deleteUser(@PathVariable Integer id, @CurrentUser AuthenticatedUser currentUser) {
         try {
             logger.info("Deleting user with id {}", id);
             if (!utilisateurRepository.existsById(id)) {
@@ -177,6 +185,8 @@ public class UserController {
                     documentJustificatifRepository.deleteAll(responseDocuments);
 
                     demandeRepository.deleteAll(userDemandes);
+                    userDemandes.forEach(demande -> statisticsService
+                            .demandeChanged(StatisticsService.DemandeState.of(demande), null));
                 }
             }
             // Check and delete related demands (as assigned user)
@@ -184,8 +194,16 @@ public class UserController {
             if (!assignedDemandes.isEmpty()) {
                 logger.info("Unassigning {} demands assigned to user {}", assignedDemandes.size(), id);
                 // Set assignedTo to null for these demands instead of deleting them
+                List<StatisticsService.DemandeState> before = assignedDemandes.stream()
+                        .map(StatisticsService.DemandeState::of)
+                        .toList();
                 assignedDemandes.forEach(demande -> demande.setAssignedTo(null));
                 demandeRepository.saveAll(assignedDemandes);
+                for (int i = 0; i < assignedDemandes.size(); i++) {
+                    StatisticsService.DemandeState after = StatisticsService.DemandeState.of(assignedDemandes.get(i));
+                    statisticsService.demandeChanged(before.get(i), after);
+                    demandeTransitionService.record(before.get(i), assignedDemandes.get(i), currentUser.id());
+                }
             }
 
             // Check and unassign related reclamations (as assigned user)
@@ -204,6 +222,8 @@ public class UserController {
             if (!userReclamations.isEmpty()) {
                 logger.info("Deleting {} reclamations related to user {}", userReclamations.size(), id);
                 reclamationRepository.deleteAll(userReclamations);
+                userReclamations.forEach(reclamation -> statisticsService
+                        .reclamationChanged(reclamation.getStatut(), null));
             }
 
             // Delete user from role-specific tables
@@ -218,6 +238,7 @@ public class UserController {
             }
 
             utilisateurRepository.deleteById(id);
+            verifiedTokenCache.invalidateUser(user.getEmail());
             return ResponseEntity.noContent().build();
 
         } catch (Exception e) {
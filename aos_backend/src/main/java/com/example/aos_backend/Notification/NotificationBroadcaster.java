@@ -0,0 +1,255 @@
+package com.example.aos_backend.Notification;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Diffusion des messages STOMP entre instances du backend.
+ *
+ * Le broker simple ne connaît que les sessions locales : chaque message est
+ * donc livré localement puis relayé aux autres instances par
+ * NOTIFY sur le canal {@code aos_notifications}. Les messages d'une courte
+ * fenêtre sont regroupés dans un même NOTIFY (8000 octets au plus).
+ * Chaque instance écoute le canal sur une connexion dédiée et livre les
+ * messages reçus à ses propres sessions.
+ * Activé par {@code app.notifications.cluster.enabled} (PostgreSQL uniquement).
+ */
+@Component
+@Slf4j
+public class NotificationBroadcaster {
+    private static final String CHANNEL = "aos_notifications";
+    // Limite PostgreSQL de 8000 octets par NOTIFY, moins l'enveloppe
+    private static final int MAX_PAYLOAD_BYTES = 7800;
+    private static final int POLL_TIMEOUT_MS = 500;
+    private static final long RECONNECT_DELAY_MS = 5000;
+
+    // user est null pour un message diffusé sur un topic
+    public record RemoteMessage(String user, String destination, JsonNode payload) {
+    }
+
+    // Message destiné à un utilisateur, envoyé localement ou reçu d'une autre instance
+    public record UserMessage(Integer userId, String destination, Object payload) {
+    }
+
+    private final SimpMessagingTemplate template;
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final long flushWindowMs;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Queue<String> outgoing = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final List<Consumer<RemoteMessage>> remoteListeners = new CopyOnWriteArrayList<>();
+    private final List<Consumer<UserMessage>> userListeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService sender = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "notification-notify");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean running;
+    private Thread listener;
+
+    public NotificationBroadcaster(SimpMessagingTemplate template, DataSource dataSource, JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper,
+            @Value("${app.notifications.cluster.enabled:false}") boolean enabled,
+            @Value("${app.notifications.cluster.flush-window-ms:20}") long flushWindowMs) {
+        this.template = template;
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.flushWindowMs = flushWindowMs;
+    }
+
+    /**
+     * Livre le message aux sessions locales et, en cluster, le relaie aux
+     * autres instances.
+     */
+    public void send(String destination, Object payload) {
+        template.convertAndSend(destination, payload);
+        relay(null, destination, payload);
+    }
+
+    /**
+     * Livre le message aux sessions de l'utilisateur ({@code /user/...})
+     * ouvertes sur cette instance et, en cluster, sur les autres.
+     */
+    public void sendToUser(Integer userId, String destination, Object payload) {
+        deliverToUser(userId, destination, payload);
+        relay(userId.toString(), destination, payload);
+    }
+
+    // Autres canaux vers l'utilisateur (flux SSE), alimentés comme les sessions STOMP
+    public void onUserMessage(Consumer<UserMessage> consumer) {
+        userListeners.add(consumer);
+    }
+
+    private void deliverToUser(Integer userId, String destination, Object payload) {
+        template.convertAndSendToUser(userId.toString(), destination, payload);
+        UserMessage message = new UserMessage(userId, destination, payload);
+        userListeners.forEach(consumer -> consumer.accept(message));
+    }
+
+    private void relay(String user, String destination, Object payload) {
+        if (!enabled) {
+            return;
+        }
+        ObjectNode message = objectMapper.createObjectNode();
+        if (user != null) {
+            message.put("u", user);
+        }
+        message.put("d", destination);
+        message.set("p", objectMapper.valueToTree(payload));
+        outgoing.add(message.toString());
+        if (flushScheduled.compareAndSet(false, true)) {
+            sender.schedule(this::flush, flushWindowMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Appelé pour chaque message reçu d'une autre instance, après livraison locale
+    public void onRemoteMessage(Consumer<RemoteMessage> consumer) {
+        remoteListeners.add(consumer);
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+        StringBuilder batch = new StringBuilder();
+        int batchBytes = 0;
+        String message;
+        while ((message = outgoing.poll()) != null) {
+            int bytes = message.getBytes(StandardCharsets.UTF_8).length + 1;
+            if (bytes > MAX_PAYLOAD_BYTES) {
+                log.warn("Cluster message of {} bytes too large for NOTIFY, delivered locally only", bytes);
+                continue;
+            }
+            if (batchBytes + bytes > MAX_PAYLOAD_BYTES) {
+                notify(batch);
+                batch.setLength(0);
+                batchBytes = 0;
+            }
+            batch.append(batch.length() == 0 ? "" : ",").append(message);
+            batchBytes += bytes;
+        }
+        if (batch.length() > 0) {
+            notify(batch);
+        }
+    }
+
+    private void notify(CharSequence messages) {
+        String payload = "{\"o\":\"" + nodeId + "\",\"m\":[" + messages + "]}";
+        try {
+            jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", CHANNEL, payload);
+        } catch (RuntimeException e) {
+            log.error("Cluster NOTIFY failed, messages delivered locally only", e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        listener = new Thread(this::listen, "notification-listen");
+        listener.setDaemon(true);
+        listener.start();
+        log.info("Cluster notification relay started on node {}", nodeId);
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receive(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Cluster LISTEN connection lost, retrying in {} ms", RECONNECT_DELAY_MS, e);
+                    sleepBeforeReconnect();
+                }
+            }
+        }
+    }
+
+    private void receive(String payload) {
+        try {
+            JsonNode envelope = objectMapper.readTree(payload);
+            if (nodeId.equals(envelope.path("o").asText())) {
+                return;
+            }
+            for (JsonNode message : envelope.path("m")) {
+                RemoteMessage remote = new RemoteMessage(
+                        message.hasNonNull("u") ? message.get("u").asText() : null,
+                        message.path("d").asText(),
+                        message.path("p"));
+                if (remote.user() != null) {
+                    deliverToUser(Integer.valueOf(remote.user()), remote.destination(), remote.payload());
+                } else {
+                    template.convertAndSend(remote.destination(), remote.payload());
+                }
+                remoteListeners.forEach(consumer -> consumer.accept(remote));
+            }
+        } catch (Exception e) {
+            log.error("Ignoring malformed cluster notification", e);
+        }
+    }
+
+    private void sleepBeforeReconnect() {
+        try {
+            Thread.sleep(RECONNECT_DELAY_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+        sender.shutdown();
+    }
+}
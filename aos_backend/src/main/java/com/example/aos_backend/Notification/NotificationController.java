@@ -10,22 +10,36 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
 import java.security.Principal;
+import java.time.Duration;
+import java.util.Date;
 import java.util.List;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.SendTo;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.example.aos_backend.Notification.NotificationService;
+import com.example.aos_backend.Service.JwtService;
+import com.example.aos_backend.dto.CursorPageDTO;
+import com.example.aos_backend.dto.NotificationDTO;
+import com.example.aos_backend.dto.NotificationReplayRequest;
+import com.example.aos_backend.security.AuthenticatedUser;
+import com.example.aos_backend.security.CurrentUser;
+import com.example.aos_backend.security.JwtFilter;
+import com.example.aos_backend.security.StompPrincipal;
 import com.example.aos_backend.user.Notification;
-import com.example.aos_backend.user.Utilisateur;
-import com.example.aos_backend.Repository.NotificationRepository;
-import com.example.aos_backend.Repository.UtilisateurRepository;
 
+import io.jsonwebtoken.Claims;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -36,8 +50,8 @@ import lombok.extern.slf4j.Slf4j;
 public class NotificationController {
 
     private final NotificationService notificationService;
-    private final NotificationRepository notificationRepository;
-    private final UtilisateurRepository utilisateurRepository;
+    private final NotificationStreams notificationStreams;
+    private final JwtService jwtService;
 
     @MessageMapping("/send")
     @SendTo("/topic/notifications")
@@ -45,69 +59,132 @@ public class NotificationController {
         return message;
     }
 
+    // Rejoue les notifications manquées pendant une déconnexion ; l'utilisateur
+    // est celui authentifié à la connexion STOMP
+    @MessageMapping("/notifications/replay")
+    public void replay(NotificationReplayRequest request, Principal principal) {
+        if (!(principal instanceof StompPrincipal user)) {
+            return;
+        }
+        int replayed = notificationService.replay(user.userId(), request.getLastSeenId());
+        log.debug("Replayed {} notifications to user {}", replayed, user.userId());
+    }
+
     @GetMapping("/user")
-    public ResponseEntity<List<Notification>> getUserNotifications(Principal principal) {
-        // Changed to findByEmail since findByUsername does not exist
-        Utilisateur user = utilisateurRepository.findByEmail(principal.getName()).orElse(null);
+    public ResponseEntity<List<Notification>> getUserNotifications(@CurrentUser AuthenticatedUser user) {
         if (user == null) {
             return ResponseEntity.badRequest().build();
         }
-        List<Notification> notifications = notificationRepository.findByUserOrderByCreatedAtDesc(user);
-        return ResponseEntity.ok(notifications);
+        return ResponseEntity.ok(notificationService.getUserNotifications(user.id()));
+    }
+
+    @GetMapping("/inbox")
+    public ResponseEntity<CursorPageDTO<NotificationDTO>> getInbox(@CurrentUser AuthenticatedUser user,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean unreadOnly) {
+        if (user == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(notificationService.getInboxPage(user.id(), cursor, size, unreadOnly));
+        } catch (IllegalArgumentException e) {
+            log.warn("Controller: invalid inbox request - {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Pose le cookie qui authentifie le flux pour EventSource, qui n'envoie
+     * pas d'en-tête Authorization. Le token du cookie n'ouvre que le flux
+     * et expire avec le token de connexion ; le navigateur le renvoie à
+     * chaque reconnexion automatique.
+     */
+    @PostMapping("/stream-session")
+    public ResponseEntity<Void> openStreamSession(@CurrentUser AuthenticatedUser user,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            HttpServletRequest request) {
+        if (user == null || authorization == null || !authorization.startsWith("Bearer ")) {
+            return ResponseEntity.badRequest().build();
+        }
+        Date expiration = jwtService.extractClaim(authorization.substring(7), Claims::getExpiration);
+        String token = jwtService.generateStreamToken(user.email(), user.id(), expiration);
+        Duration maxAge = Duration.ofMillis(Math.max(0, expiration.getTime() - System.currentTimeMillis()));
+        return ResponseEntity.noContent()
+                .header(HttpHeaders.SET_COOKIE, streamCookie(request, token, maxAge).toString())
+                .build();
+    }
+
+    @DeleteMapping("/stream-session")
+    public ResponseEntity<Void> closeStreamSession(HttpServletRequest request) {
+        return ResponseEntity.noContent()
+                .header(HttpHeaders.SET_COOKIE, streamCookie(request, "", Duration.ZERO).toString())
+                .build();
+    }
+
+    private static ResponseCookie streamCookie(HttpServletRequest request, String value, Duration maxAge) {
+        return ResponseCookie.from(JwtFilter.NOTIFICATION_STREAM_COOKIE, value)
+                .httpOnly(true)
+                .secure(request.isSecure())
+                .sameSite("Strict")
+                .path(request.getContextPath() + JwtFilter.NOTIFICATION_STREAM_PATH)
+                .maxAge(maxAge)
+                .build();
+    }
+
+    // Flux SSE des notifications ; le navigateur renvoie Last-Event-ID à la reconnexion.
+    // Authentifié par l'en-tête Authorization ou le cookie de /stream-session
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(@CurrentUser AuthenticatedUser user,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        if (user == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(notificationStreams.open(user.id(), lastEventId));
+    }
+
+    // Client SSE parti pendant un envoi : la réponse est déjà engagée, rien à renvoyer
+    @ExceptionHandler(IOException.class)
+    public void streamClosed(IOException e) {
+        log.debug("Notification stream closed by client: {}", e.getMessage());
     }
 
     @GetMapping("/unread-count")
-    public ResponseEntity<Long> getUnreadCount(Principal principal) {
-        // Changed to findByEmail since findByUsername does not exist
-        Utilisateur user = utilisateurRepository.findByEmail(principal.getName()).orElse(null);
+    public ResponseEntity<Long> getUnreadCount(@CurrentUser AuthenticatedUser user) {
         if (user == null) {
             return ResponseEntity.badRequest().build();
         }
-        long count = notificationRepository.countUnreadByUser(user);
-        return ResponseEntity.ok(count);
+        return ResponseEntity.ok(notificationService.getUnreadNotificationCount(user.id()));
     }
 
     @PatchMapping("/{id}/read")
-    public ResponseEntity<Void> markAsRead(@PathVariable Long id, Principal principal) {
-        // Changed to findByEmail since findByUsername does not exist
-        Utilisateur user = utilisateurRepository.findByEmail(principal.getName()).orElse(null);
+    public ResponseEntity<Void> markAsRead(@PathVariable Long id, @CurrentUser AuthenticatedUser user) {
         if (user == null) {
             return ResponseEntity.badRequest().build();
         }
-        Notification notification = notificationRepository.findById(id).orElse(null);
-        if (notification == null || !notification.getUser().getId().equals(user.getId())) {
+        if (!notificationService.markNotificationAsRead(id, user.id())) {
             return ResponseEntity.badRequest().build();
         }
-        notification.setIsRead(true);
-        notificationRepository.save(notification);
         return ResponseEntity.ok().build();
     }
 
     @PatchMapping("/mark-all-read")
-    public ResponseEntity<Void> markAllAsRead(Principal principal) {
-        // Changed to findByEmail since findByUsername does not exist
-        Utilisateur user = utilisateurRepository.findByEmail(principal.getName()).orElse(null);
+    public ResponseEntity<Void> markAllAsRead(@CurrentUser AuthenticatedUser user) {
         if (user == null) {
             return ResponseEntity.badRequest().build();
         }
-        List<Notification> unreadNotifications = notificationRepository.findByUserAndIsReadFalse(user);
-        unreadNotifications.forEach(n -> n.setIsRead(true));
-        notificationRepository.saveAll(unreadNotifications);
+        notificationService.markAllNotificationsAsRead(user.id());
         return ResponseEntity.ok().build();
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteNotification(@PathVariable Long id, Principal principal) {
-        // Changed to findByEmail since findByUsername does not exist
-        Utilisateur user = utilisateurRepository.findByEmail(principal.getName()).orElse(null);
+    public ResponseEntity<Void> deleteNotification(@PathVariable Long id, @CurrentUser AuthenticatedUser user) {
         if (user == null) {
             return ResponseEntity.badRequest().build();
         }
-        Notification notification = notificationRepository.findById(id).orElse(null);
-        if (notification == null || !notification.getUser().getId().equals(user.getId())) {
+        if (!notificationService.deleteNotification(id, user.id())) {
             return ResponseEntity.badRequest().build();
         }
-        notificationRepository.delete(notification);
         return ResponseEntity.ok().build();
     }
 }
@@ -0,0 +1,264 @@
+package com.example.aos_backend.Notification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.aos_backend.Repository.NotificationOutboxRepository;
+import com.example.aos_backend.Repository.NotificationRepository;
+import com.example.aos_backend.Repository.UtilisateurRepository;
+import com.example.aos_backend.dto.NotificationDTO;
+import com.example.aos_backend.user.Notification;
+import com.example.aos_backend.user.NotificationOutbox;
+import com.example.aos_backend.user.NotificationType;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Outbox des notifications.
+ *
+ * {@link #dispatch} écrit les notifications dans la table
+ * {@code notification_outbox}, dans la transaction métier : un rollback
+ * n'envoie donc rien. Après le commit, le relais attend une courte fenêtre,
+ * lit les lignes en attente dans l'ordre, fusionne les notifications
+ * identiques (même destinataire, titre et lien), les insère par lots JDBC
+ * et supprime les lignes traitées dans une même transaction, puis publie
+ * sur le broker STOMP (et les autres instances) une fois ce lot validé.
+ * Un balayage périodique reprend les lignes laissées par un arrêt brutal.
+ *
+ * Si un lot échoue, les lignes sont relayées une par une (sans fusion) :
+ * une ligne en échec reste dans l'outbox pour le balayage suivant et n'est
+ * écartée qu'après {@code max-attempts} échecs. Si l'échec ne peut pas être
+ * compté (base indisponible), le passage s'arrête sans rien écarter.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationDispatcher {
+
+    public record NotificationRequest(Integer userId, String title, String message, NotificationType type,
+            String actionUrl) {
+    }
+
+    // Atteinte par les clients via /user/queue/notifications
+    static final String NOTIFICATIONS_DESTINATION = "/queue/notifications";
+
+    private record CoalesceKey(Integer userId, String title, String actionUrl) {
+    }
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationOutboxRepository outboxRepository;
+    private final UtilisateurRepository userRepository;
+    private final NotificationBroadcaster broadcaster;
+    private final TransactionTemplate transactionTemplate;
+    private final UnreadNotificationCounter unreadNotificationCounter;
+
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "notification-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${app.notifications.coalesce-window-ms:100}")
+    private long coalesceWindowMs;
+
+    @Value("${app.notifications.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.notifications.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    /**
+     * Enregistre les notifications dans l'outbox, dans la transaction
+     * courante s'il y en a une ; le relais est déclenché après le commit.
+     */
+    public void dispatch(Collection<NotificationRequest> requests) {
+        if (requests.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<NotificationOutbox> rows = new ArrayList<>(requests.size());
+        for (NotificationRequest request : requests) {
+            rows.add(NotificationOutbox.builder()
+                    .userId(request.userId())
+                    .title(request.title())
+                    .message(request.message())
+                    .type(request.type())
+                    .actionUrl(request.actionUrl())
+                    .createdAt(now)
+                    .build());
+        }
+        outboxRepository.saveAll(rows);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    scheduleFlush();
+                }
+            });
+        } else {
+            scheduleFlush();
+        }
+    }
+
+    // Reprend les lignes restées dans l'outbox (arrêt brutal, échec du relais)
+    @Scheduled(initialDelayString = "${app.notifications.outbox.sweep-interval-ms:10000}",
+            fixedDelayString = "${app.notifications.outbox.sweep-interval-ms:10000}")
+    public void sweep() {
+        scheduleFlush();
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            executor.schedule(this::flush, coalesceWindowMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+        int relayed;
+        do {
+            try {
+                relayed = relay(batchSize);
+            } catch (Exception e) {
+                log.warn("Notification outbox batch failed, relaying one by one", e);
+                relayed = relayOneByOne(batchSize);
+            }
+        } while (relayed >= batchSize);
+    }
+
+    // Une ligne en échec ne bloque pas les suivantes ; retourne moins que limit en cas d'échec
+    private int relayOneByOne(int limit) {
+        List<Long> ids;
+        try {
+            ids = transactionTemplate.execute(status -> outboxRepository.findPendingIds(PageRequest.of(0, limit)));
+        } catch (Exception e) {
+            log.warn("Notification outbox unavailable, retrying on next sweep", e);
+            return 0;
+        }
+        int relayed = 0;
+        for (Long id : ids) {
+            try {
+                relayed += relay(() -> outboxRepository.findPendingById(id));
+            } catch (Exception e) {
+                if (!recordFailure(id, e)) {
+                    return 0;
+                }
+            }
+        }
+        return relayed;
+    }
+
+    /**
+     * Transforme au plus {@code limit} lignes de l'outbox en notifications
+     * et les publie après commit ; retourne le nombre de lignes consommées.
+     */
+    private int relay(int limit) {
+        return relay(() -> outboxRepository.findPending(PageRequest.of(0, limit)));
+    }
+
+    private int relay(Supplier<List<NotificationOutbox>> pending) {
+        List<Notification> saved = new ArrayList<>();
+        Integer consumed = transactionTemplate.execute(status -> {
+            List<NotificationOutbox> rows = pending.get();
+            if (!rows.isEmpty()) {
+                saved.addAll(save(coalesce(rows)));
+                outboxRepository.deleteAllInBatch(rows);
+            }
+            return rows.size();
+        });
+        publish(saved);
+        return consumed == null ? 0 : consumed;
+    }
+
+    /**
+     * Compte l'échec de la ligne {@code id}, écartée au-delà de maxAttempts ;
+     * retourne false si l'échec n'a pas pu être enregistré.
+     */
+    private boolean recordFailure(Long id, Exception cause) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.findPendingById(id).forEach(row -> {
+                row.setAttempts(row.getAttempts() + 1);
+                if (row.getAttempts() >= maxAttempts) {
+                    log.error("Dropping notification {} for user {} after {} attempts", row.getId(), row.getUserId(),
+                            row.getAttempts(), cause);
+                    outboxRepository.delete(row);
+                } else {
+                    log.warn("Notification {} for user {} failed (attempt {}/{}), retrying on next sweep: {}",
+                            row.getId(), row.getUserId(), row.getAttempts(), maxAttempts, cause.toString());
+                }
+            }));
+            return true;
+        } catch (Exception e) {
+            log.warn("Notification outbox unavailable, retrying on next sweep", e);
+            return false;
+        }
+    }
+
+    private static Collection<NotificationOutbox> coalesce(List<NotificationOutbox> batch) {
+        // La dernière notification d'une rafale remplace les précédentes et prend leur place dans l'ordre
+        Map<CoalesceKey, NotificationOutbox> unique = new LinkedHashMap<>();
+        for (NotificationOutbox row : batch) {
+            CoalesceKey key = new CoalesceKey(row.getUserId(), row.getTitle(), row.getActionUrl());
+            unique.remove(key);
+            unique.put(key, row);
+        }
+        return unique.values();
+    }
+
+    private List<Notification> save(Collection<NotificationOutbox> rows) {
+        List<Notification> notifications = new ArrayList<>(rows.size());
+        for (NotificationOutbox row : rows) {
+            notifications.add(Notification.builder()
+                    .user(userRepository.getReferenceById(row.getUserId()))
+                    .title(row.getTitle())
+                    .message(row.getMessage())
+                    .type(row.getType())
+                    .isRead(false)
+                    .actionUrl(row.getActionUrl())
+                    .build());
+        }
+        return notificationRepository.saveAll(notifications);
+    }
+
+    private void publish(List<Notification> notifications) {
+        Map<Integer, Integer> created = new HashMap<>();
+        for (Notification notification : notifications) {
+            NotificationDTO dto = NotificationDTO.of(notification);
+            created.merge(dto.getUserId(), 1, Integer::sum);
+            // Déjà enregistrée : un envoi manqué est rattrapé par la relecture à la reconnexion
+            try {
+                broadcaster.sendToUser(dto.getUserId(), NOTIFICATIONS_DESTINATION, dto);
+            } catch (Exception e) {
+                log.warn("Could not push notification {} to user {}", dto.getId(), dto.getUserId(), e);
+            }
+        }
+        created.forEach(unreadNotificationCounter::add);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
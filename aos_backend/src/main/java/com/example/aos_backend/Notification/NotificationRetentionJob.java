@@ -0,0 +1,55 @@
+package com.example.aos_backend.Notification;
+
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.aos_backend.Repository.NotificationRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Purge périodique des notifications lues plus anciennes que
+ * {@code app.notifications.retention.max-age-days}, par tranches courtes
+ * (une transaction par tranche) pour ne pas verrouiller la table.
+ * Les notifications non lues sont conservées.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationRetentionJob {
+
+    private final NotificationRepository notificationRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.notifications.retention.max-age-days:90}")
+    private int maxAgeDays;
+
+    @Value("${app.notifications.retention.batch-size:1000}")
+    private int batchSize;
+
+    @Scheduled(initialDelayString = "${app.notifications.retention.interval-ms:3600000}",
+            fixedDelayString = "${app.notifications.retention.interval-ms:3600000}")
+    public void purge() {
+        LocalDateTime before = LocalDateTime.now().minusDays(maxAgeDays);
+        long deleted = 0;
+        int count;
+        try {
+            do {
+                count = transactionTemplate.execute(
+                        status -> notificationRepository.deleteReadBefore(before, batchSize));
+                deleted += count;
+            } while (count >= batchSize);
+        } catch (RuntimeException e) {
+            log.error("Notification retention stopped after {} rows", deleted, e);
+            return;
+        }
+        if (deleted > 0) {
+            log.info("Notification retention: {} read notifications older than {} deleted", deleted, before);
+        }
+    }
+}
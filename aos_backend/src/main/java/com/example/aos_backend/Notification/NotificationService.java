@@ -1,19 +1,25 @@
 package com.example.aos_backend.Notification;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
 import com.example.aos_backend.Repository.AdminRepository;
 import com.example.aos_backend.Repository.NotificationRepository;
-import com.example.aos_backend.Repository.UtilisateurRepository;
+import com.example.aos_backend.Util.CursorUtil;
+import com.example.aos_backend.dto.CursorPageDTO;
 import com.example.aos_backend.dto.DemandeDTO;
-import com.example.aos_backend.user.Admin;
+import com.example.aos_backend.dto.NotificationDTO;
 import com.example.aos_backend.user.Notification;
 import com.example.aos_backend.user.NotificationType;
+import com.example.aos_backend.user.StatutDemande;
 import com.example.aos_backend.user.Utilisateur;
 
 import jakarta.transaction.Transactional;
@@ -23,100 +29,146 @@ import lombok.RequiredArgsConstructor;
 @Transactional
 @RequiredArgsConstructor
 public class NotificationService {
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    // Au-delà, le client redemande à partir de la dernière notification rejouée
+    private static final int MAX_REPLAY = 100;
+    private static final DateTimeFormatter SLA_DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
     @Autowired
     private SimpMessagingTemplate template;
 
     private final NotificationRepository notificationRepository;
     private final AdminRepository adminRepository;
-    private final UtilisateurRepository userRepository;
+    private final NotificationDispatcher notificationDispatcher;
+    private final UnreadNotificationCounter unreadNotificationCounter;
+    private final NotificationBroadcaster broadcaster;
 
     public void sendNotification(String message) {
-        template.convertAndSend("/topic/notifications", message);
+        broadcaster.send("/topic/notifications", message);
     }
 
-    public Notification createAndSendNotification(Utilisateur user, String title, String message, NotificationType type,
+    public void createAndSendNotification(Utilisateur user, String title, String message, NotificationType type,
             String actionUrl) {
-        Notification notification = Notification.builder()
-                .user(user)
-                .title(title)
-                .message(message)
-                .type(type)
-                .isRead(false)
-                .actionUrl(actionUrl)
-                .build();
+        notificationDispatcher.dispatch(List.of(
+                new NotificationDispatcher.NotificationRequest(user.getId(), title, message, type, actionUrl)));
+    }
+
+    public List<Notification> getUserNotifications(Integer userId) {
+        return notificationRepository.findByUserIdOrderByCreatedAtDesc(userId);
+    }
 
-        Notification saved = notificationRepository.save(notification);
+    public CursorPageDTO<NotificationDTO> getInboxPage(Integer userId, String cursor, Integer size,
+            boolean unreadOnly) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        CursorUtil.Cursor seek = CursorUtil.decode(cursor);
 
-        // Send via WebSocket
-        template.convertAndSend("/topic/notifications/" + user.getId(), saved);
+        // On lit une ligne de plus pour savoir s'il reste une page
+        List<NotificationDTO> rows = notificationRepository.findInboxPage(userId, unreadOnly,
+                seek != null ? seek.timestamp() : null,
+                seek != null ? seek.id() : null,
+                PageRequest.of(0, pageSize + 1));
 
-        return saved;
+        boolean hasMore = rows.size() > pageSize;
+        List<NotificationDTO> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            NotificationDTO last = page.get(page.size() - 1);
+            nextCursor = CursorUtil.encode(last.getCreatedAt(), last.getId());
+        }
+
+        return CursorPageDTO.<NotificationDTO>builder()
+                .items(page)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
     }
 
-    public List<Notification> getUserNotifications(Utilisateur user) {
-        return notificationRepository.findByUserOrderByCreatedAtDesc(user);
+    /**
+     * Republie aux sessions locales de l'utilisateur les notifications
+     * postérieures à {@code lastSeenId}, dans l'ordre.
+     */
+    public int replay(Integer userId, Long lastSeenId) {
+        if (userId == null || lastSeenId == null) {
+            return 0;
+        }
+        List<NotificationDTO> missed = notificationRepository.findAfterId(userId, lastSeenId,
+                PageRequest.of(0, MAX_REPLAY));
+        for (NotificationDTO notification : missed) {
+            template.convertAndSendToUser(userId.toString(), NotificationDispatcher.NOTIFICATIONS_DESTINATION,
+                    notification);
+        }
+        return missed.size();
     }
 
-    public long getUnreadNotificationCount(Utilisateur user) {
-        return notificationRepository.countUnreadByUser(user);
+    public long getUnreadNotificationCount(Integer userId) {
+        return unreadNotificationCounter.get(userId);
     }
 
-    public void markNotificationAsRead(Long notificationId) {
-        Notification notification = notificationRepository.findById(notificationId).orElse(null);
-        if (notification != null) {
-            notification.setIsRead(true);
-            notificationRepository.save(notification);
+    /**
+     * Marque la notification comme lue si elle appartient à {@code userId} ;
+     * retourne false sinon. Les mises à jour sont conditionnelles : de deux
+     * appels concurrents (deux onglets), un seul décrémente le compteur.
+     */
+    public boolean markNotificationAsRead(Long notificationId, Integer userId) {
+        if (notificationRepository.markReadByIdAndUserId(notificationId, userId) == 1) {
+            unreadNotificationCounter.add(userId, -1);
+            return true;
         }
+        return notificationRepository.existsByIdAndUserId(notificationId, userId);
     }
 
-    public void markAllNotificationsAsRead(Utilisateur user) {
-        List<Notification> notifications = notificationRepository.findByUserAndIsReadFalse(user);
-        for (Notification notification : notifications) {
-            notification.setIsRead(true);
-        }
-        notificationRepository.saveAll(notifications);
+    public int markAllNotificationsAsRead(Integer userId) {
+        int updated = notificationRepository.markAllReadByUserId(userId);
+        unreadNotificationCounter.reset(userId);
+        return updated;
     }
 
-    public void deleteNotification(Long notificationId) {
-        notificationRepository.deleteById(notificationId);
+    public boolean deleteNotification(Long notificationId, Integer userId) {
+        if (notificationRepository.deleteByIdAndUserIdAndIsRead(notificationId, userId, false) == 1) {
+            unreadNotificationCounter.add(userId, -1);
+            return true;
+        }
+        return notificationRepository.deleteByIdAndUserIdAndIsRead(notificationId, userId, true) == 1;
     }
 
     public void notifyAdminNewDemande(DemandeDTO demande) {
-        List<Admin> admins = adminRepository.findAll();
-        for (Admin admin : admins) {
-            Utilisateur user = admin.getUtilisateur();
-
-            Notification notification = Notification.builder()
-                    .user(user)
-                    .title("Nouvelle demande créée")
-                    .message("Une nouvelle demande a été créée: " + demande.getDescription())
-                    .type(NotificationType.info)
-                    .isRead(false)
-                    .actionUrl("/admin/requests/" + demande.getId())
-                    .build();
-
-            notificationRepository.save(notification);
-
-            // Send notification via WebSocket
-            template.convertAndSend("/topic/notifications/" + user.getId(), notification);
-        }
+        List<NotificationDispatcher.NotificationRequest> requests = adminRepository.findAllIds().stream()
+                .map(adminId -> new NotificationDispatcher.NotificationRequest(
+                        adminId,
+                        "Nouvelle demande créée",
+                        "Une nouvelle demande a été créée: " + demande.getDescription(),
+                        NotificationType.info,
+                        "/admin/requests/" + demande.getId()))
+                .toList();
+        notificationDispatcher.dispatch(requests);
     }
 
     public void notifyUpdateDemande(DemandeDTO demande) {
-
-        Utilisateur user = userRepository.findById(demande.getUtilisateurId())
-                .orElseThrow();
-        Notification notification = Notification.builder()
-                .user(user)
-                .title("demande mis a jour")
-                .message("Une demande a été mise a jour: " + demande.getDescription())
-                .type(NotificationType.info)
-                .isRead(false)
-                .actionUrl("/admin/requests/" + demande.getId())
-                .build();
-
-        notificationRepository.save(notification);
-
+        notificationDispatcher.dispatch(List.of(new NotificationDispatcher.NotificationRequest(
+                demande.getUtilisateurId(),
+                "demande mis a jour",
+                "Une demande a été mise a jour: " + demande.getDescription(),
+                NotificationType.info,
+                "/admin/requests/" + demande.getId())));
     }
 
+    // Administrateurs et assignataire éventuel
+    public void notifySlaBreach(Integer demandeId, StatutDemande statut, Integer assigneeId, LocalDateTime since) {
+        Set<Integer> recipients = new LinkedHashSet<>(adminRepository.findAllIds());
+        if (assigneeId != null) {
+            recipients.add(assigneeId);
+        }
+        String message = "La demande #" + demandeId + " est en statut " + statut + " depuis le "
+                + since.format(SLA_DATE_FORMAT);
+        notificationDispatcher.dispatch(recipients.stream()
+                .map(userId -> new NotificationDispatcher.NotificationRequest(
+                        userId,
+                        "Délai de traitement dépassé",
+                        message,
+                        NotificationType.warning,
+                        "/admin/requests/" + demandeId))
+                .toList());
+    }
 }
@@ -0,0 +1,174 @@
+package com.example.aos_backend.Notification;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.aos_backend.Repository.NotificationRepository;
+import com.example.aos_backend.dto.NotificationDTO;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Flux SSE des notifications, alternative légère à STOMP pour les clients
+ * qui ne font que recevoir.
+ *
+ * Tous les onglets d'un utilisateur partagent un même ensemble d'émetteurs,
+ * alimenté par {@link NotificationBroadcaster} comme les sessions STOMP.
+ * Les émetteurs sont asynchrones : une connexion inactive n'occupe aucun
+ * thread de servlet. Les envois et battements passent par un petit pool
+ * dédié pour ne pas bloquer le relais des notifications.
+ */
+@Component
+@Slf4j
+public class NotificationStreams {
+    private static final int MAX_REPLAY = 100;
+
+    private final NotificationRepository notificationRepository;
+    private final long timeoutMs;
+    private final int maxPerUser;
+
+    private final Map<Integer, Set<SseEmitter>> emitters = new ConcurrentHashMap<>();
+    private final ExecutorService sender;
+
+    public NotificationStreams(NotificationRepository notificationRepository, NotificationBroadcaster broadcaster,
+            @Value("${app.notifications.sse.timeout-ms:1800000}") long timeoutMs,
+            @Value("${app.notifications.sse.max-per-user:10}") int maxPerUser,
+            @Value("${app.notifications.sse.sender-threads:2}") int senderThreads) {
+        this.notificationRepository = notificationRepository;
+        this.timeoutMs = timeoutMs;
+        this.maxPerUser = maxPerUser;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "notification-sse-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        broadcaster.onUserMessage(message -> {
+            if (emitters.containsKey(message.userId())) {
+                sender.execute(() -> deliver(message));
+            }
+        });
+    }
+
+    /**
+     * Ouvre un flux pour l'utilisateur ; avec {@code lastEventId}, les
+     * notifications manquées depuis sont renvoyées d'abord.
+     */
+    public SseEmitter open(Integer userId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(() -> remove(userId, emitter));
+        emitter.onError(e -> remove(userId, emitter));
+
+        List<SseEmitter> evicted = new ArrayList<>(1);
+        emitters.compute(userId, (id, set) -> {
+            Set<SseEmitter> updated = set != null ? set : new CopyOnWriteArraySet<>();
+            if (updated.size() >= maxPerUser) {
+                // Trop d'onglets : on ferme le plus ancien
+                SseEmitter oldest = updated.iterator().next();
+                updated.remove(oldest);
+                evicted.add(oldest);
+            }
+            updated.add(emitter);
+            return updated;
+        });
+        evicted.forEach(SseEmitter::complete);
+
+        // Enregistré avant la relecture : un doublon est possible, jamais un trou
+        if (lastEventId != null) {
+            List<NotificationDTO> missed = notificationRepository.findAfterId(userId, lastEventId,
+                    PageRequest.of(0, MAX_REPLAY));
+            for (NotificationDTO notification : missed) {
+                send(userId, emitter, notificationEvent(notification.getId(), notification));
+            }
+        } else {
+            send(userId, emitter, SseEmitter.event().comment("connected"));
+        }
+        return emitter;
+    }
+
+    // Commentaire SSE périodique pour que les proxys ne coupent pas les flux inactifs
+    @Scheduled(fixedRateString = "${app.notifications.sse.heartbeat-ms:15000}")
+    public void heartbeat() {
+        emitters.forEach((userId, set) -> set.forEach(emitter -> sender.execute(
+                () -> send(userId, emitter, SseEmitter.event().comment("ping")))));
+    }
+
+    // Un événement par émetteur : build() complète le builder à chaque envoi
+    private void deliver(NotificationBroadcaster.UserMessage message) {
+        Supplier<SseEmitter.SseEventBuilder> event;
+        if (NotificationDispatcher.NOTIFICATIONS_DESTINATION.equals(message.destination())) {
+            Long id = notificationId(message.payload());
+            event = () -> notificationEvent(id, message.payload());
+        } else if (UnreadNotificationCounter.COUNT_DESTINATION.equals(message.destination())) {
+            event = () -> SseEmitter.event().name("count").data(message.payload(), MediaType.APPLICATION_JSON);
+        } else {
+            return;
+        }
+        Set<SseEmitter> set = emitters.get(message.userId());
+        if (set != null) {
+            set.forEach(emitter -> send(message.userId(), emitter, event.get()));
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder notificationEvent(Long id, Object notification) {
+        SseEmitter.SseEventBuilder event = SseEmitter.event().name("notification");
+        if (id != null) {
+            // Renvoyé par le navigateur dans Last-Event-ID à la reconnexion
+            event.id(id.toString());
+        }
+        return event.data(notification, MediaType.APPLICATION_JSON);
+    }
+
+    // Objet local ou JSON reçu d'une autre instance
+    private static Long notificationId(Object payload) {
+        if (payload instanceof NotificationDTO notification) {
+            return notification.getId();
+        }
+        if (payload instanceof JsonNode node && node.hasNonNull("id")) {
+            return node.get("id").asLong();
+        }
+        return null;
+    }
+
+    private void send(Integer userId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            // Client parti : le conteneur signale l'erreur et termine la requête lui-même
+            log.debug("Dropping notification stream of user {}: {}", userId, e.getMessage());
+            remove(userId, emitter);
+        }
+    }
+
+    private void remove(Integer userId, SseEmitter emitter) {
+        emitters.computeIfPresent(userId, (id, set) -> {
+            set.remove(emitter);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdown();
+        emitters.values().forEach(set -> set.forEach(SseEmitter::complete));
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.aos_backend.Notification;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.aos_backend.Repository.NotificationRepository;
+
+/**
+ * Nombre de notifications non lues par utilisateur, tenu en mémoire.
+ *
+ * Un compteur absent est reconstruit depuis la base à la première lecture.
+ * Chaque modification est appliquée après commit puis poussée sur
+ * la file {@code /user/queue/notifications/count} de l'utilisateur. En cluster, un compteur
+ * modifié par une autre instance est retiré pour être relu depuis la base.
+ */
+@Component
+public class UnreadNotificationCounter {
+    static final String COUNT_DESTINATION = "/queue/notifications/count";
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationBroadcaster broadcaster;
+
+    private final Map<Integer, AtomicInteger> counts = new ConcurrentHashMap<>();
+
+    public UnreadNotificationCounter(NotificationRepository notificationRepository,
+            NotificationBroadcaster broadcaster) {
+        this.notificationRepository = notificationRepository;
+        this.broadcaster = broadcaster;
+        broadcaster.onRemoteMessage(message -> {
+            if (message.user() != null && COUNT_DESTINATION.equals(message.destination())) {
+                counts.remove(Integer.valueOf(message.user()));
+            }
+        });
+    }
+
+    public int get(Integer userId) {
+        AtomicInteger count = counts.get(userId);
+        if (count == null) {
+            int fromDb = Math.toIntExact(notificationRepository.countUnreadByUserId(userId));
+            count = counts.computeIfAbsent(userId, id -> new AtomicInteger(fromDb));
+        }
+        return count.get();
+    }
+
+    public void add(Integer userId, int delta) {
+        if (delta != 0) {
+            afterCommit(() -> {
+                AtomicInteger count = counts.get(userId);
+                // Sans compteur en mémoire, la base reflète déjà le changement
+                int value = count != null ? count.updateAndGet(v -> Math.max(0, v + delta)) : get(userId);
+                push(userId, value);
+            });
+        }
+    }
+
+    /**
+     * Après un marquage en masse : le compteur est retiré et relu depuis la
+     * base, qui compte aussi une notification arrivée entre la mise à jour
+     * et le commit.
+     */
+    public void reset(Integer userId) {
+        afterCommit(() -> {
+            counts.remove(userId);
+            push(userId, get(userId));
+        });
+    }
+
+    private void push(Integer userId, int value) {
+        broadcaster.sendToUser(userId, COUNT_DESTINATION, value);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
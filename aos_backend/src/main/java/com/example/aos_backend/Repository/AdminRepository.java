@@ -1,8 +1,10 @@
 package com.example.aos_backend.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.example.aos_backend.user.Admin;
@@ -15,4 +17,8 @@ public interface AdminRepository extends JpaRepository<Admin, Integer> {
     boolean existsByUtilisateur(Utilisateur user);
 
     void deleteByUtilisateur(Utilisateur user);
+
+    // L'id d'un admin est celui de son utilisateur (@MapsId)
+    @Query("SELECT a.id FROM Admin a")
+    List<Integer> findAllIds();
 }
\ No newline at end of file
@@ -1,24 +1,67 @@
 package com.example.aos_backend.Repository;
 
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import com.example.aos_backend.dto.DemandeRow;
+import com.example.aos_backend.dto.DemandeSearchHit;
 import com.example.aos_backend.user.Demande;
+import com.example.aos_backend.user.StatutDemande;
 import com.example.aos_backend.user.Utilisateur;
 
+import jakarta.persistence.QueryHint;
+
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface DemandeRepository extends JpaRepository<Demande, Long> {
 
+    /**
+     * Réserve l'alerte de dépassement de la demande restée dans
+     * {@code statut} depuis {@code enteredAt} : 1 pour la seule instance qui
+     * doit la signaler, 0 si elle l'a déjà été ou si le statut a changé.
+     */
+    @Modifying
+    // Seules les données de la table demande sont invalidées dans le cache de second niveau
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = "demande"))
+    @Query(value = "UPDATE demande SET sla_breach_notified_at = :now WHERE id = :id AND statut = :statut "
+            + "AND (sla_breach_notified_at IS NULL OR sla_breach_notified_at < :enteredAt)", nativeQuery = true)
+    int claimSlaBreach(@Param("id") Integer id, @Param("statut") String statut,
+            @Param("enteredAt") LocalDateTime enteredAt, @Param("now") LocalDateTime now);
+
     @Query("SELECT COUNT(d) FROM Demande d WHERE d.statut = :status")
-    long countByStatus(@Param("status") String status);
+    long countByStatus(@Param("status") StatutDemande status);
 
     @Query("SELECT COUNT(d) FROM Demande d WHERE d.dateSoumission >= :date")
     long countByCreatedAtAfter(@Param("date") LocalDateTime date);
 
+    // Agrégats utilisés pour recaler les compteurs du tableau de bord
+    @Query("SELECT d.statut, COUNT(d) FROM Demande d GROUP BY d.statut")
+    List<Object[]> countGroupByStatut();
+
+    @Query("SELECT d.service.id, COUNT(d) FROM Demande d GROUP BY d.service.id")
+    List<Object[]> countGroupByServiceId();
+
+    @Query("SELECT d.assignedTo.id, COUNT(d) FROM Demande d WHERE d.assignedTo IS NOT NULL GROUP BY d.assignedTo.id")
+    List<Object[]> countGroupByAssignedToId();
+
+    @Query("SELECT CAST(d.dateSoumission AS LocalDate), COUNT(d) FROM Demande d "
+            + "WHERE d.dateSoumission >= :since GROUP BY CAST(d.dateSoumission AS LocalDate)")
+    List<Object[]> countGroupByDaySince(@Param("since") LocalDateTime since);
+
+    // Nombre de demandes clôturées et somme de leurs durées de traitement (secondes)
+    @Query("SELECT COUNT(d), COALESCE(SUM((d.dateCloture - d.dateSoumission) BY SECOND), 0) FROM Demande d "
+            + "WHERE d.dateCloture IS NOT NULL")
+    List<Object[]> sumResolutionSeconds();
+
     @Query("SELECT d FROM Demande d ORDER BY d.dateSoumission DESC")
     List<Demande> findRecentDemandes();
 
@@ -28,4 +71,84 @@ public interface DemandeRepository extends JpaRepository<Demande, Long> {
     List<Demande> findByUtilisateur(Utilisateur utilisateur);
 
     List<Demande> findByAssignedTo(Utilisateur user);
+
+    String ROW_SELECT = "SELECT new com.example.aos_backend.dto.DemandeRow("
+            + "d.id, d.dateSoumission, d.statut, d.description, d.commentaire, "
+            + "u.id, u.firstname, u.lastname, u.email, "
+            + "s.id, s.nom, "
+            + "a.id, a.firstname, a.lastname, "
+            + "r.id, r.fileName, r.contentType, r.type, r.uploadedAt) "
+            + "FROM Demande d JOIN d.utilisateur u JOIN d.service s "
+            + "LEFT JOIN d.assignedTo a LEFT JOIN d.documentReponse r ";
+
+    @Query(ROW_SELECT + "ORDER BY d.id")
+    List<DemandeRow> findAllRows();
+
+    @Query(ROW_SELECT + "ORDER BY d.dateSoumission DESC, d.id DESC")
+    List<DemandeRow> findRecentRows(Pageable pageable);
+
+    @Query(ROW_SELECT + "WHERE d.id = :id")
+    Optional<DemandeRow> findRowById(@Param("id") Integer id);
+
+    @Query(ROW_SELECT + "WHERE d.id IN :ids")
+    List<DemandeRow> findRowsByIds(@Param("ids") Collection<Integer> ids);
+
+    @Query(ROW_SELECT + "WHERE a.id = :userId ORDER BY d.id")
+    List<DemandeRow> findRowsByAssignedToId(@Param("userId") Integer userId);
+
+    String PAGE_FILTERS = "WHERE (:statut IS NULL OR d.statut = :statut) "
+            + "AND (:serviceId IS NULL OR s.id = :serviceId) "
+            + "AND (:assignedToId IS NULL OR a.id = :assignedToId) ";
+
+    // Pagination keyset sur (date_soumission, id) : coût constant quelle que soit la profondeur
+    @Query(ROW_SELECT + PAGE_FILTERS + "ORDER BY d.dateSoumission DESC, d.id DESC")
+    List<DemandeRow> findFirstPageRows(@Param("statut") StatutDemande statut,
+            @Param("serviceId") Long serviceId,
+            @Param("assignedToId") Integer assignedToId,
+            Pageable pageable);
+
+    // Comparaison de lignes : parcours de idx_demande_date_soumission_id à partir du curseur,
+    // y compris avec un plan générique
+    @Query(ROW_SELECT + PAGE_FILTERS
+            + "AND (d.dateSoumission, d.id) < (:cursorDate, :cursorId) "
+            + "ORDER BY d.dateSoumission DESC, d.id DESC")
+    List<DemandeRow> findPageRowsAfter(@Param("statut") StatutDemande statut,
+            @Param("serviceId") Long serviceId,
+            @Param("assignedToId") Integer assignedToId,
+            @Param("cursorDate") LocalDateTime cursorDate,
+            @Param("cursorId") Integer cursorId,
+            Pageable pageable);
+
+    // Délimiteurs des termes trouvés dans les extraits : caractères de
+    // contrôle, pour échapper le texte avant de poser les balises <mark>
+    String HIGHLIGHT_START = "\u0002";
+    String HIGHLIGHT_STOP = "\u0003";
+
+    // Recherche plein texte (PostgreSQL, colonne search_vector tenue par
+    // déclencheur) : rang décroissant puis id, keyset sur (rang, id). Les
+    // extraits, coûteux, ne sont calculés que pour les lignes de la page.
+    @Query(value = "WITH q AS (SELECT websearch_to_tsquery('fr_unaccent', :query) AS query), "
+            + "hits AS (SELECT d.id, ts_rank_cd(d.search_vector, q.query) AS rank FROM demande d, q "
+            + "    WHERE d.search_vector @@ q.query "
+            + "    AND (CAST(:statut AS text) IS NULL OR d.statut = CAST(:statut AS text)) "
+            + "    AND (CAST(:serviceId AS bigint) IS NULL OR d.service_id = CAST(:serviceId AS bigint)) "
+            + "    AND (CAST(:assignedToId AS integer) IS NULL OR d.assigned_to_id = CAST(:assignedToId AS integer))), "
+            + "page AS (SELECT id, rank FROM hits "
+            + "    WHERE CAST(:cursorRank AS real) IS NULL "
+            + "    OR (rank, id) < (CAST(:cursorRank AS real), CAST(:cursorId AS integer)) "
+            + "    ORDER BY rank DESC, id DESC LIMIT :limit) "
+            + "SELECT p.id AS id, p.rank AS rank, "
+            + "    ts_headline('fr_unaccent', concat_ws(' … ', d.description, d.commentaire), q.query, "
+            + "        'StartSel=" + HIGHLIGHT_START + ", StopSel=" + HIGHLIGHT_STOP
+            + ", MaxFragments=2, MaxWords=20, MinWords=5') AS highlight "
+            + "FROM page p JOIN demande d ON d.id = p.id CROSS JOIN q "
+            + "ORDER BY p.rank DESC, p.id DESC",
+            nativeQuery = true)
+    List<DemandeSearchHit> search(@Param("query") String query,
+            @Param("statut") String statut,
+            @Param("serviceId") Long serviceId,
+            @Param("assignedToId") Integer assignedToId,
+            @Param("cursorRank") Float cursorRank,
+            @Param("cursorId") Integer cursorId,
+            @Param("limit") int limit);
 }
@@ -0,0 +1,36 @@
+package com.example.aos_backend.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.aos_backend.dto.OpenDemandeRow;
+import com.example.aos_backend.user.DemandeTransition;
+import com.example.aos_backend.user.StatutDemande;
+
+@Repository
+public interface DemandeTransitionRepository extends JpaRepository<DemandeTransition, Long> {
+
+    List<DemandeTransition> findByDemandeIdOrderByOccurredAtAscIdAsc(Integer demandeId);
+
+    // Demandes ouvertes et dates utiles au calcul de leur échéance (planificateur SLA)
+    String OPEN_DEMANDES = "SELECT new com.example.aos_backend.dto.OpenDemandeRow("
+            + "d.id, d.statut, s.slaHours, a.id, d.dateSoumission, "
+            + "(SELECT MAX(t.occurredAt) FROM DemandeTransition t WHERE t.demandeId = d.id "
+            + "    AND t.type = com.example.aos_backend.user.TypeTransition.STATUT), "
+            + "(SELECT MAX(t.occurredAt) FROM DemandeTransition t WHERE t.demandeId = d.id "
+            + "    AND t.type = com.example.aos_backend.user.TypeTransition.SLA_DEPASSE)) "
+            + "FROM Demande d JOIN d.service s LEFT JOIN d.assignedTo a "
+            + "WHERE d.statut IN :statuts";
+
+    @Query(OPEN_DEMANDES)
+    List<OpenDemandeRow> findOpenDemandes(@Param("statuts") List<StatutDemande> statuts);
+
+    @Query(OPEN_DEMANDES + " AND d.dateSoumission >= :since")
+    List<OpenDemandeRow> findOpenDemandesSubmittedSince(@Param("statuts") List<StatutDemande> statuts,
+            @Param("since") LocalDateTime since);
+}
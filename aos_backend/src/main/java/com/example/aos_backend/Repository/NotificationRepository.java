@@ -1,22 +1,70 @@
 package com.example.aos_backend.Repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.example.aos_backend.dto.NotificationDTO;
 import com.example.aos_backend.user.Notification;
-import com.example.aos_backend.user.Utilisateur;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
 
-    List<Notification> findByUserOrderByCreatedAtDesc(Utilisateur user);
+    List<Notification> findByUserIdOrderByCreatedAtDesc(Integer userId);
 
-    @Query("SELECT COUNT(n) FROM Notification n WHERE n.user = :user AND n.isRead = false")
-    long countUnreadByUser(@Param("user") Utilisateur user);
+    // Servie par l'index partiel idx_notification_user_unread (schema-POSTGRESQL.sql)
+    @Query("SELECT COUNT(n) FROM Notification n WHERE n.user.id = :userId AND n.isRead = false")
+    long countUnreadByUserId(@Param("userId") Integer userId);
 
-    List<Notification> findByUserAndIsReadFalse(Utilisateur user);
+    // Pagination keyset sur (created_at, id), projetée directement en DTO sans charger l'utilisateur
+    @Query("SELECT new com.example.aos_backend.dto.NotificationDTO("
+            + "n.id, n.title, n.message, n.type, n.isRead, n.createdAt, n.actionUrl, n.user.id) "
+            + "FROM Notification n "
+            + "WHERE n.user.id = :userId "
+            + "AND (:unreadOnly = false OR n.isRead = false) "
+            + "AND (:cursorDate IS NULL OR n.createdAt < :cursorDate "
+            + "     OR (n.createdAt = :cursorDate AND n.id < :cursorId)) "
+            + "ORDER BY n.createdAt DESC, n.id DESC")
+    List<NotificationDTO> findInboxPage(@Param("userId") Integer userId,
+            @Param("unreadOnly") boolean unreadOnly,
+            @Param("cursorDate") LocalDateTime cursorDate,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
+
+    // Notifications manquées depuis la dernière reçue, dans l'ordre de publication
+    @Query("SELECT new com.example.aos_backend.dto.NotificationDTO("
+            + "n.id, n.title, n.message, n.type, n.isRead, n.createdAt, n.actionUrl, n.user.id) "
+            + "FROM Notification n WHERE n.user.id = :userId AND n.id > :afterId ORDER BY n.id")
+    List<NotificationDTO> findAfterId(@Param("userId") Integer userId, @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.user.id = :userId AND n.isRead = false")
+    int markAllReadByUserId(@Param("userId") Integer userId);
+
+    // 1 seulement pour l'appel qui fait passer la notification à lue
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true "
+            + "WHERE n.id = :id AND n.user.id = :userId AND n.isRead = false")
+    int markReadByIdAndUserId(@Param("id") Long id, @Param("userId") Integer userId);
+
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.id = :id AND n.user.id = :userId AND n.isRead = :isRead")
+    int deleteByIdAndUserIdAndIsRead(@Param("id") Long id, @Param("userId") Integer userId,
+            @Param("isRead") boolean isRead);
+
+    boolean existsByIdAndUserId(Long id, Integer userId);
+
+    // Purge par tranches : chaque appel supprime au plus :limit notifications lues
+    @Modifying
+    @Query(value = "DELETE FROM notification WHERE id IN ("
+            + "SELECT id FROM notification WHERE is_read = true AND created_at < :before ORDER BY id LIMIT :limit)",
+            nativeQuery = true)
+    int deleteReadBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
 }
@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import com.example.aos_backend.user.Reclamation;
 import com.example.aos_backend.user.Utilisateur;
@@ -22,4 +23,7 @@ public interface ReclamationRepository extends JpaRepository<Reclamation, Long>
 
     boolean existsByUtilisateur(Utilisateur utilisateur);
 
+    @Query("SELECT r.statut, COUNT(r) FROM Reclamation r GROUP BY r.statut")
+    List<Object[]> countGroupByStatut();
+
 }
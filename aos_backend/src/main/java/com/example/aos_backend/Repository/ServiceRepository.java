@@ -2,12 +2,29 @@ package com.example.aos_backend.Repository;
 
 import java.util.List;
 
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import com.example.aos_backend.config.SecondLevelCacheConfig;
 import com.example.aos_backend.user.ServiceEntity;
 
+import jakarta.persistence.QueryHint;
+
 public interface ServiceRepository extends JpaRepository<ServiceEntity, Long>{
     ServiceEntity findByNom(String nom);
+
+    // Résultats (identifiants) en cache de requêtes, entités dans leur région
+    @QueryHints({ @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.SERVICE_QUERY_REGION) })
     List<ServiceEntity> findByType(String type);
+
+    @QueryHints({ @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.SERVICE_QUERY_REGION) })
     List<ServiceEntity> findByIsActive(Boolean isActive);
+
+    @Override
+    @QueryHints({ @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.SERVICE_QUERY_REGION) })
+    List<ServiceEntity> findAll();
 }
\ No newline at end of file
@@ -1,9 +1,14 @@
 package com.example.aos_backend.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.example.aos_backend.dto.DocumentRow;
 import com.example.aos_backend.user.DocumentJustificatif;
 
 public interface StorageRepository extends JpaRepository<DocumentJustificatif, Long> {
@@ -15,4 +20,17 @@ public interface StorageRepository extends JpaRepository<DocumentJustificatif, L
     Optional<DocumentJustificatif> findByDemandeId(long demandeId);
 
     DocumentJustificatif findByContentType(String contentType);
+
+    // Métadonnées des justificatifs d'un lot de demandes, sans lire la colonne content
+    @Query("SELECT new com.example.aos_backend.dto.DocumentRow("
+            + "doc.demande.id, doc.id, doc.fileName, doc.contentType, doc.uploadedAt, doc.type, doc.fileSize, doc.blobKey, doc.codec) "
+            + "FROM DocumentJustificatif doc "
+            + "WHERE doc.demande.id IN :demandeIds AND doc.type = 'justificatif' "
+            + "ORDER BY doc.id")
+    List<DocumentRow> findJustificatifRowsByDemandeIds(@Param("demandeIds") Collection<Integer> demandeIds);
+
+    @Query("SELECT new com.example.aos_backend.dto.DocumentRow("
+            + "doc.demande.id, doc.id, doc.fileName, doc.contentType, doc.uploadedAt, doc.type, doc.fileSize, doc.blobKey, doc.codec) "
+            + "FROM DocumentJustificatif doc WHERE doc.id = :id")
+    Optional<DocumentRow> findRowById(@Param("id") Long id);
 }
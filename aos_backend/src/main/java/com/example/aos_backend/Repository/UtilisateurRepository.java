@@ -4,10 +4,13 @@ import java.time.LocalDateTime;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.example.aos_backend.dto.LoginProfile;
 import com.example.aos_backend.user.Utilisateur;
 
 @Repository
@@ -22,4 +25,25 @@ public interface UtilisateurRepository extends JpaRepository<Utilisateur, Intege
     
     @Query("SELECT COUNT(u) FROM Utilisateur u WHERE u.createdDate >= :date")
     long countByCreatedDateAfter(@Param("date") LocalDateTime date);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Utilisateur u SET u.password = :password WHERE u.email = :email")
+    int updatePasswordByEmail(@Param("email") String email, @Param("password") String password);
+
+    // Type d'utilisateur d'après les tables admin / support
+    String USER_TYPE = "CASE WHEN EXISTS (SELECT a.id FROM Admin a WHERE a.id = u.id) THEN 'ADMIN' "
+            + "     WHEN EXISTS (SELECT s.id FROM Support s WHERE s.id = u.id) THEN 'SUPPORT' "
+            + "     ELSE 'AGENT' END";
+
+    // Profil de connexion : type d'utilisateur et rôle résolus dans la même requête
+    @Query("SELECT new com.example.aos_backend.dto.LoginProfile("
+            + "u.id, u.email, u.firstname, u.lastname, u.phone, u.cin, u.matricule, u.Department, "
+            + "u.enabled, u.usingTemporaryPassword, " + USER_TYPE + ", "
+            + "(SELECT MIN(r.name) FROM Utilisateur x JOIN x.roles r WHERE x.id = u.id)) "
+            + "FROM Utilisateur u WHERE u.email = :email")
+    Optional<LoginProfile> findLoginProfile(@Param("email") String email);
+
+    @Query("SELECT " + USER_TYPE + " FROM Utilisateur u WHERE u.id = :id")
+    Optional<String> findUserTypeById(@Param("id") Integer id);
 }
\ No newline at end of file
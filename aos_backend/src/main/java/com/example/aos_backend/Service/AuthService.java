@@ -3,20 +3,19 @@ package com.example.aos_backend.Service;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import com.example.aos_backend.Repository.AdminRepository;
-import com.example.aos_backend.Repository.SupportRepository;
-import com.example.aos_backend.Repository.TokenRepository;
 import com.example.aos_backend.Repository.UtilisateurRepository;
-import com.example.aos_backend.user.Token;
+import com.example.aos_backend.dto.LoginProfile;
+import com.example.aos_backend.dto.UserDTO;
+import com.example.aos_backend.security.PasswordHashingExecutor;
+import com.example.aos_backend.security.TokenRegistry;
 import com.example.aos_backend.user.Utilisateur;
 
 import lombok.RequiredArgsConstructor;
@@ -24,50 +23,62 @@ import lombok.RequiredArgsConstructor;
 @Service
 @RequiredArgsConstructor
 public class AuthService {
-    private final TokenRepository tokenRepository;
+    private final TokenRegistry tokenRegistry;
+    private final PasswordHashingExecutor passwordHashingExecutor;
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
     private final UtilisateurRepository userRepository;
-    private final AdminRepository adminRepository;
-    private final SupportRepository supportRepository;
+
+    /**
+     * Vérifie le mot de passe sur le pool de hachage ; lève une
+     * RejectedExecutionException si le pool est saturé.
+     */
+    public CompletableFuture<Map<String, Object>> authenticateAsync(String email, String password) {
+        return passwordHashingExecutor.submit(() -> authenticate(email, password));
+    }
 
     public Map<String, Object> authenticate(String email, String password) {
         // Authenticate user
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(email, password));
-        SecurityContextHolder.getContext().setAuthentication(authentication);
+
+        LoginProfile profile = userRepository.findLoginProfile(email)
+                .orElseThrow(() -> new RuntimeException("User not found with email: " + email));
 
         // Generate JWT token
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        String jwtToken = jwtService.generateToken(userDetails);
+        String jwtToken = jwtService.generateToken(userDetails, profile.getId(), profile.getUserType());
 
-        // Save token
-        Utilisateur user = getUserByEmail(email);
-        Token token = Token.builder()
-                .token(jwtToken)
-                .createdAt(LocalDateTime.now())
-                .expiresAt(LocalDateTime.now().plusHours(24))
-                .utilisateur(user)
-                .build();
-        tokenRepository.save(token);
+        // Journal des tokens émis, écrit en différé
+        LocalDateTime now = LocalDateTime.now();
+        tokenRegistry.register(jwtToken, profile.getId(), now, now.plusHours(24));
 
         // Build response
         Map<String, Object> response = new HashMap<>();
         response.put("token", jwtToken);
-        response.put("userT", getUserType(email));
-        response.put("userType", user.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .findFirst()
-                .orElse("UNKNOWN"));
+        response.put("userT", profile.getUserType());
+        response.put("userType", profile.getRoleName() != null ? "ROLE_" + profile.getRoleName() : "UNKNOWN");
         response.put("email", email);
-        response.put("mustChangePassword", isUsingTemporaryPassword(email));
-        response.put("userId", user.getId());
-        response.put("FirstName", user.getLastname());
-        response.put("LastName", user.getFirstname());
-        response.put("phoneNumber", user.getPhone());
-        response.put("department", user.getDepartment());
-        response.put("isActive", user.isEnabled());
-        response.put("user", user);
+        response.put("mustChangePassword", profile.isUsingTemporaryPassword());
+        response.put("userId", profile.getId());
+        response.put("FirstName", profile.getLastname());
+        response.put("LastName", profile.getFirstname());
+        response.put("phoneNumber", profile.getPhone());
+        response.put("department", profile.getDepartment());
+        response.put("isActive", profile.isEnabled());
+        response.put("user", UserDTO.builder()
+                .id(profile.getId())
+                .firstname(profile.getFirstname())
+                .lastname(profile.getLastname())
+                .email(profile.getEmail())
+                .role(profile.getUserType())
+                .usingTemporaryPassword(profile.isUsingTemporaryPassword())
+                .phone(profile.getPhone())
+                .cin(profile.getCin())
+                .matricule(profile.getMatricule())
+                .department(profile.getDepartment())
+                .enabled(profile.isEnabled())
+                .build());
 
         return response;
     }
@@ -76,19 +87,4 @@ public class AuthService {
         return userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User not found with email: " + email));
     }
-
-    private boolean isUsingTemporaryPassword(String email) {
-        return getUserByEmail(email).isUsingTemporaryPassword();
-    }
-
-    private String getUserType(String email) {
-        Utilisateur user = getUserByEmail(email);
-        if (adminRepository.existsByUtilisateur(user)) {
-            return "ADMIN";
-        }
-        if (supportRepository.existsByUtilisateur(user)) {
-            return "SUPPORT";
-        }
-        return "AGENT";
-    }
-}
\ No newline at end of file
+}
@@ -1,32 +1,33 @@
 package com.example.aos_backend.Service;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.util.HtmlUtils;
 
 import com.example.aos_backend.Repository.*;
-import com.example.aos_backend.Util.DocumentUtil;
+import com.example.aos_backend.Util.CursorUtil;
+import com.example.aos_backend.dto.CursorPageDTO;
 import com.example.aos_backend.dto.DemandeDTO;
+import com.example.aos_backend.dto.DemandeRow;
+import com.example.aos_backend.dto.DemandeSearchHit;
+import com.example.aos_backend.dto.DemandeSearchResultDTO;
 import com.example.aos_backend.dto.DocumentJustificatifDto;
+import com.example.aos_backend.dto.DocumentRow;
 import com.example.aos_backend.dto.UpdateDemandeRequest;
 import com.example.aos_backend.dto.UserDTO;
-import com.example.aos_backend.user.ActiviteCulturelleSportiveService;
-import com.example.aos_backend.user.AppuiScolaireService;
-import com.example.aos_backend.user.ColonieVacanceService;
+import com.example.aos_backend.security.AuthenticatedUser;
+import com.example.aos_backend.storage.UploadPipeline;
 import com.example.aos_backend.user.Demande;
 import com.example.aos_backend.user.DocumentJustificatif;
-import com.example.aos_backend.user.LogementService;
-import com.example.aos_backend.user.SanteSocialeService;
 import com.example.aos_backend.user.ServiceEntity;
 import com.example.aos_backend.user.StatutDemande;
 import com.example.aos_backend.user.Support;
-import com.example.aos_backend.user.TransportService;
 import com.example.aos_backend.user.Utilisateur;
 
 import jakarta.transaction.Transactional;
@@ -37,86 +38,213 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 @Slf4j
 public class DemandeService {
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int DOCUMENT_BATCH_SIZE = 1000;
+
     private final DemandeRepository demandeRepository;
     private final UtilisateurRepository userRepository;
     private final SupportRepository supportRepository;
     private final StorageRepository storageRepository;
+    private final StatisticsService statisticsService;
+    private final DemandeTransitionService transitionService;
 
     @Transactional
     public List<DemandeDTO> getAllDemandes() {
+        return toDemandeDTOs(demandeRepository.findAllRows());
+    }
 
-        List<Demande> demandes = demandeRepository.findAll();
-
-        for (Demande d : demandes) {
-            // Vérifier si la liste des documents est null ou vide
-            if (d.getDocumentsJustificatifs() == null) {
-                System.out.println("DocumentsJustificatifs: NULL");
-            } else if (d.getDocumentsJustificatifs().isEmpty()) {
-                System.out.println("DocumentsJustificatifs: EMPTY");
-            } else {
-                System.out.println("DocumentsJustificatifs count = " + d.getDocumentsJustificatifs().size());
-                for (DocumentJustificatif doc : d.getDocumentsJustificatifs()) {
-                    System.out.println("  -> Document ID: " + doc.getId() +
-                            ", FileName: " + doc.getFileName() +
-                            ", ContentType: " + doc.getContentType() +
-                            ", UploadedAt: " + doc.getUploadedAt());
-                }
-            }
+    public long countDemandes() {
+        return demandeRepository.count();
+    }
+
+    public long countDemandesByStatut(StatutDemande statut) {
+        return demandeRepository.countByStatus(statut);
+    }
 
-            // Vérifier document réponse
-            if (d.getDocumentReponse() != null) {
-                System.out.println("DocumentReponse ID: " + d.getDocumentReponse().getId() +
-                        ", FileName: " + d.getDocumentReponse().getFileName());
-            } else {
-                System.out.println("DocumentReponse: NULL");
+    @Transactional
+    public List<DemandeDTO> getRecentDemandes(int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return toDemandeDTOs(demandeRepository.findRecentRows(PageRequest.of(0, size)));
+    }
+
+    @Transactional
+    public CursorPageDTO<DemandeDTO> getDemandesPage(String cursor, Integer size, String statut, Long serviceId,
+            Integer assignedToId) {
+        int pageSize = pageSize(size);
+        StatutDemande statutFilter = parseStatut(statut);
+
+        CursorUtil.Cursor seek = CursorUtil.decode(cursor);
+
+        // On lit une ligne de plus pour savoir s'il reste une page
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<DemandeRow> rows = seek == null
+                ? demandeRepository.findFirstPageRows(statutFilter, serviceId, assignedToId, limit)
+                : demandeRepository.findPageRowsAfter(statutFilter, serviceId, assignedToId, seek.timestamp(),
+                        Math.toIntExact(seek.id()), limit);
+
+        boolean hasMore = rows.size() > pageSize;
+        List<DemandeRow> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            DemandeRow last = page.get(page.size() - 1);
+            nextCursor = CursorUtil.encode(last.getDateSoumission(), last.getId());
+        }
+
+        return CursorPageDTO.<DemandeDTO>builder()
+                .items(toDemandeDTOs(page))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * Recherche plein texte sur la description, le commentaire, le nom et
+     * l'email du demandeur et le nom du service, filtres combinables. Les
+     * demandes de la page sont relues en une requête par leurs projections.
+     */
+    @Transactional
+    public CursorPageDTO<DemandeSearchResultDTO> searchDemandes(String query, String cursor, Integer size,
+            String statut, Long serviceId, Integer assignedToId) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Recherche vide");
+        }
+        int pageSize = pageSize(size);
+        StatutDemande statutFilter = parseStatut(statut);
+        CursorUtil.RankCursor seek = CursorUtil.decodeRank(cursor);
+
+        List<DemandeSearchHit> hits = demandeRepository.search(query.strip(),
+                statutFilter != null ? statutFilter.name() : null, serviceId, assignedToId,
+                seek != null ? seek.rank() : null,
+                seek != null ? Math.toIntExact(seek.id()) : null,
+                pageSize + 1);
+
+        boolean hasMore = hits.size() > pageSize;
+        List<DemandeSearchHit> page = hasMore ? hits.subList(0, pageSize) : hits;
+
+        Map<Integer, DemandeDTO> demandes = new HashMap<>();
+        if (!page.isEmpty()) {
+            for (DemandeDTO demande : toDemandeDTOs(
+                    demandeRepository.findRowsByIds(page.stream().map(DemandeSearchHit::getId).toList()))) {
+                demandes.put(demande.getId(), demande);
             }
         }
 
+        String nextCursor = null;
+        if (hasMore) {
+            DemandeSearchHit last = page.get(page.size() - 1);
+            nextCursor = CursorUtil.encode(last.getRank(), last.getId());
+        }
+
+        return CursorPageDTO.<DemandeSearchResultDTO>builder()
+                .items(page.stream()
+                        .filter(hit -> demandes.containsKey(hit.getId()))
+                        .map(hit -> DemandeSearchResultDTO.builder()
+                                .demande(demandes.get(hit.getId()))
+                                .rank(hit.getRank())
+                                .highlight(highlight(hit.getHighlight()))
+                                .build())
+                        .toList())
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    // Le texte vient des demandeurs : échappé, seuls les délimiteurs deviennent des balises
+    private static String highlight(String headline) {
+        if (headline == null) {
+            return null;
+        }
+        return HtmlUtils.htmlEscape(headline, "UTF-8")
+                .replace(DemandeRepository.HIGHLIGHT_START, "<mark>")
+                .replace(DemandeRepository.HIGHLIGHT_STOP, "</mark>");
+    }
+
+    private static int pageSize(Integer size) {
+        return size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    private static StatutDemande parseStatut(String statut) {
+        if (statut == null || statut.isBlank()) {
+            return null;
+        }
         try {
-            return demandes.stream().map(d -> DemandeDTO.builder()
-                    .id(d.getId())
-                    .description(d.getDescription())
-                    .commentaire(d.getCommentaire())
-                    .statut(d.getStatut().name())
-                    .dateSoumission(d.getDateSoumission())
-                    .utilisateurId(d.getUtilisateur().getId())
-                    .utilisateurNom(d.getUtilisateur().fullname())
-                    .utilisateurEmail(d.getUtilisateur().getEmail())
-                    .serviceId(d.getService().getId())
-                    .serviceNom(d.getService().getNom())
-                    .documentsJustificatifs(d.getDocumentsJustificatifs() != null
-                            ? d.getDocumentsJustificatifs().stream()
-                                    .map(doc -> DocumentJustificatifDto.builder()
-                                            .id(doc.getId())
-                                            .fileName(doc.getFileName())
-                                            .contentType(doc.getContentType())
-                                            .type(doc.getType())
-                                            .uploadedAt(doc.getUploadedAt() != null ? doc.getUploadedAt() : null)
-                                            .build())
-                                    .toList()
-                            : List.of())
-                    .documentReponse(d.getDocumentReponse() != null
-                            ? DocumentJustificatifDto.builder()
-                                    .id(d.getDocumentReponse().getId())
-                                    .fileName(d.getDocumentReponse().getFileName())
-                                    .contentType(d.getDocumentReponse().getContentType())
-                                    .type(d.getDocumentReponse().getType())
-                                    .uploadedAt(d.getDocumentReponse().getUploadedAt() != null
-                                            ? d.getDocumentReponse().getUploadedAt()
-                                            : null)
-                                    .build()
-                            : null)
-                    .assignedToId(d.getAssignedTo() != null ? d.getAssignedTo().getId() : null)
-                    .assignedToUsername(
-                            d.getAssignedTo() != null ? d.getAssignedTo().fullname() : null)
-                    .build()).toList();
-
-        } catch (Exception e) {
-            e.printStackTrace();
-            throw e;
+            return StatutDemande.valueOf(statut);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Statut invalide: " + statut);
         }
     }
 
+    /**
+     * Construit les DTO à partir des projections : une requête pour les lignes
+     * (déjà faite par l'appelant) et une requête par lot pour les justificatifs.
+     */
+    private List<DemandeDTO> toDemandeDTOs(List<DemandeRow> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, List<DocumentJustificatifDto>> documents = findJustificatifs(
+                rows.stream().map(DemandeRow::getId).toList());
+        return rows.stream()
+                .map(row -> toDemandeDTO(row, documents.getOrDefault(row.getId(), List.of())))
+                .toList();
+    }
+
+    private DemandeDTO loadDemandeDTO(Integer id) {
+        DemandeRow row = demandeRepository.findRowById(id)
+                .orElseThrow(() -> new RuntimeException("Demande not found for ID: " + id));
+        return toDemandeDTOs(List.of(row)).get(0);
+    }
+
+    private Map<Integer, List<DocumentJustificatifDto>> findJustificatifs(List<Integer> demandeIds) {
+        Map<Integer, List<DocumentJustificatifDto>> byDemande = new HashMap<>();
+        // Découpage pour rester sous la limite de paramètres de PostgreSQL
+        for (int from = 0; from < demandeIds.size(); from += DOCUMENT_BATCH_SIZE) {
+            List<Integer> batch = demandeIds.subList(from, Math.min(from + DOCUMENT_BATCH_SIZE, demandeIds.size()));
+            for (DocumentRow doc : storageRepository.findJustificatifRowsByDemandeIds(batch)) {
+                byDemande.computeIfAbsent(doc.getDemandeId(), k -> new ArrayList<>())
+                        .add(DocumentJustificatifDto.builder()
+                                .id(doc.getId())
+                                .fileName(doc.getFileName())
+                                .contentType(doc.getContentType())
+                                .type(doc.getType())
+                                .uploadedAt(doc.getUploadedAt())
+                                .build());
+            }
+        }
+        return byDemande;
+    }
+
+    private DemandeDTO toDemandeDTO(DemandeRow row, List<DocumentJustificatifDto> documents) {
+        return DemandeDTO.builder()
+                .id(row.getId())
+                .description(row.getDescription())
+                .commentaire(row.getCommentaire())
+                .statut(row.getStatut().name())
+                .dateSoumission(row.getDateSoumission())
+                .utilisateurId(row.getUtilisateurId())
+                .utilisateurNom(row.getUtilisateurFirstname() + " " + row.getUtilisateurLastname())
+                .utilisateurEmail(row.getUtilisateurEmail())
+                .serviceId(row.getServiceId())
+                .serviceNom(row.getServiceNom())
+                .documentsJustificatifs(documents)
+                .documentReponse(row.getReponseId() != null
+                        ? DocumentJustificatifDto.builder()
+                                .id(row.getReponseId())
+                                .fileName(row.getReponseFileName())
+                                .contentType(row.getReponseContentType())
+                                .type(row.getReponseType())
+                                .uploadedAt(row.getReponseUploadedAt())
+                                .build()
+                        : null)
+                .assignedToId(row.getAssignedToId())
+                .assignedToUsername(row.getAssignedToId() != null
+                        ? row.getAssignedToFirstname() + " " + row.getAssignedToLastname()
+                        : null)
+                .build();
+    }
+
     @Transactional
     public Demande getDemandById(Long id) {
         return demandeRepository.findById(id)
@@ -125,92 +253,15 @@ public class DemandeService {
 
     @Transactional
     public List<DemandeDTO> getRequestsAssignedToUser(Integer userId) {
-        Utilisateur user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé pour l'ID: " + userId));
-
-        List<Demande> demandes = demandeRepository.findByAssignedTo(user);
-
-        return demandes.stream().map(d -> DemandeDTO.builder()
-                .id(d.getId())
-                .description(d.getDescription())
-                .statut(d.getStatut().name())
-                .commentaire(d.getCommentaire())
-                .dateSoumission(d.getDateSoumission())
-                .utilisateurId(d.getUtilisateur().getId())
-                .utilisateurNom(d.getUtilisateur().fullname())
-                .utilisateurEmail(d.getUtilisateur().getEmail())
-                .serviceId(d.getService().getId())
-                .serviceNom(d.getService().getNom())
-                .documentsJustificatifs(d.getDocumentsJustificatifs() != null
-                        ? d.getDocumentsJustificatifs().stream()
-                                .map(doc -> DocumentJustificatifDto.builder()
-                                        .id(doc.getId())
-                                        .fileName(doc.getFileName())
-                                        .contentType(doc.getContentType())
-                                        .type(doc.getType())
-                                        .uploadedAt(doc.getUploadedAt() != null ? doc.getUploadedAt() : null)
-                                        .build())
-                                .toList()
-                        : List.of())
-                .documentReponse(d.getDocumentReponse() != null
-                        ? DocumentJustificatifDto.builder()
-                                .id(d.getDocumentReponse().getId())
-                                .fileName(d.getDocumentReponse().getFileName())
-                                .contentType(d.getDocumentReponse().getContentType())
-                                .type(d.getDocumentReponse().getType())
-                                .uploadedAt(d.getDocumentReponse().getUploadedAt() != null
-                                        ? d.getDocumentReponse().getUploadedAt()
-                                        : null)
-                                .build()
-                        : null)
-                .assignedToId(d.getAssignedTo() != null ? d.getAssignedTo().getId() : null)
-                .assignedToUsername(d.getAssignedTo() != null ? d.getAssignedTo().fullname() : null)
-                .build()).toList();
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("Utilisateur non trouvé pour l'ID: " + userId);
+        }
+        return toDemandeDTOs(demandeRepository.findRowsByAssignedToId(userId));
     }
 
     @Transactional
     public DemandeDTO getDemandeById(Long id) {
-        Optional<Demande> demandeOpt = demandeRepository.findById(id);
-        if (demandeOpt.isEmpty()) {
-            throw new RuntimeException("Demande not found for ID: " + id);
-        }
-        Demande d = demandeOpt.get();
-        return DemandeDTO.builder()
-                .id(d.getId())
-                .description(d.getDescription())
-                .statut(d.getStatut().name())
-                .commentaire(d.getCommentaire())
-                .dateSoumission(d.getDateSoumission())
-                .utilisateurId(d.getUtilisateur().getId())
-                .utilisateurNom(d.getUtilisateur().fullname())
-                .utilisateurEmail(d.getUtilisateur().getEmail())
-                .serviceId(d.getService().getId())
-                .serviceNom(d.getService().getNom())
-                .documentsJustificatifs(d.getDocumentsJustificatifs() != null
-                        ? d.getDocumentsJustificatifs().stream()
-                                .map(doc -> DocumentJustificatifDto.builder()
-                                        .id(doc.getId())
-                                        .fileName(doc.getFileName())
-                                        .contentType(doc.getContentType())
-                                        .type(doc.getType())
-                                        .uploadedAt(doc.getUploadedAt() != null ? doc.getUploadedAt() : null)
-                                        .build())
-                                .toList()
-                        : List.of())
-                .documentReponse(d.getDocumentReponse() != null
-                        ? DocumentJustificatifDto.builder()
-                                .id(d.getDocumentReponse().getId())
-                                .fileName(d.getDocumentReponse().getFileName())
-                                .contentType(d.getDocumentReponse().getContentType())
-                                .type(d.getDocumentReponse().getType())
-                                .uploadedAt(d.getDocumentReponse().getUploadedAt() != null
-                                        ? d.getDocumentReponse().getUploadedAt()
-                                        : null)
-                                .build()
-                        : null)
-                .assignedToId(d.getAssignedTo() != null ? d.getAssignedTo().getId() : null)
-                .assignedToUsername(d.getAssignedTo() != null ? d.getAssignedTo().fullname() : null)
-                .build();
+        return loadDemandeDTO(Math.toIntExact(id));
     }
 
     @Transactional
@@ -224,7 +275,7 @@ public class DemandeService {
         Demande demande = demandeOpt.get();
         ServiceEntity service = demande.getService();
 
-        return extractServiceSpecificData(service);
+        return ServiceSchemas.read(service.getType(), service.getAttributes());
     }
 
     @Transactional
@@ -240,7 +291,7 @@ public class DemandeService {
     }
 
     @Transactional
-    public DemandeDTO assignRequest(Long id, Integer userId) {
+    public DemandeDTO assignRequest(Long id, Integer userId, Integer actorId) {
         Demande demande = demandeRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Demande non trouvée pour l'ID: " + id));
         Utilisateur user = null;
@@ -257,193 +308,46 @@ public class DemandeService {
                 throw new IllegalArgumentException("L'utilisateur doit avoir le rôle SUPPORT pour être assigné");
             }
         }
+        StatisticsService.DemandeState before = StatisticsService.DemandeState.of(demande);
         demande.setAssignedTo(user);
         demande.setLastModifiedDate(new java.sql.Timestamp(System.currentTimeMillis()).toLocalDateTime());
         demande = demandeRepository.save(demande);
-        return DemandeDTO.builder()
-                .id(demande.getId())
-                .description(demande.getDescription())
-                .statut(demande.getStatut().name())
-                .dateSoumission(demande.getDateSoumission())
-                .commentaire(demande.getCommentaire())
-                .utilisateurId(demande.getUtilisateur().getId())
-                .utilisateurNom(demande.getUtilisateur().fullname())
-                .utilisateurEmail(demande.getUtilisateur().getEmail())
-                .serviceId(demande.getService().getId())
-                .serviceNom(demande.getService().getNom())
-                .documentsJustificatifs(demande.getDocumentsJustificatifs() != null
-                        ? demande.getDocumentsJustificatifs().stream()
-                                .map(doc -> DocumentJustificatifDto.builder()
-                                        .id(doc.getId())
-                                        .fileName(doc.getFileName())
-                                        .contentType(doc.getContentType())
-                                        .type(doc.getType())
-                                        .uploadedAt(doc.getUploadedAt() != null ? doc.getUploadedAt() : null)
-                                        .build())
-                                .toList()
-                        : List.of())
-                .documentReponse(demande.getDocumentReponse() != null
-                        ? DocumentJustificatifDto.builder()
-                                .id(demande.getDocumentReponse().getId())
-                                .fileName(demande.getDocumentReponse().getFileName())
-                                .contentType(demande.getDocumentReponse().getContentType())
-                                .type(demande.getDocumentReponse().getType())
-                                .uploadedAt(demande.getDocumentReponse().getUploadedAt() != null
-                                        ? demande.getDocumentReponse().getUploadedAt()
-                                        : null)
-                                .build()
-                        : null)
-                .assignedToId(demande.getAssignedTo() != null ? demande.getAssignedTo().getId() : null)
-                .assignedToUsername(demande.getAssignedTo() != null ? demande.getAssignedTo().fullname() : null)
-                .build();
-    }
-
-    private Map<String, Object> extractServiceSpecificData(ServiceEntity service) {
-        Map<String, Object> data = new HashMap<>();
-        String serviceType = service.getType();
-
-        switch (serviceType) {
-            case "TransportService":
-                TransportService transportService = (TransportService) service;
-                data.put("trajet", transportService.getTrajet());
-                data.put("pointDepart", transportService.getPointDepart());
-                data.put("pointArrivee", transportService.getPointArrivee());
-                data.put("frequence", transportService.getFrequence());
-                break;
-
-            case "SanteSocialeService":
-                SanteSocialeService santeService = (SanteSocialeService) service;
-                data.put("typeSoin", santeService.getTypeSoin());
-                data.put("montant", santeService.getMontant());
-                break;
-
-            case "LogementService":
-                LogementService logementService = (LogementService) service;
-                data.put("typeLogement", logementService.getTypeLogement());
-                data.put("localisationSouhaitee", logementService.getLocalisationSouhaitee());
-                data.put("montantParticipation", logementService.getMontantParticipation());
-                break;
-
-            case "ColonieVacanceService":
-                ColonieVacanceService colonieService = (ColonieVacanceService) service;
-                data.put("nombreEnfants", colonieService.getNombreEnfants());
-                data.put("lieuSouhaite", colonieService.getLieuSouhaite());
-                data.put("periode", colonieService.getPeriode());
-                break;
-
-            case "AppuiScolaireService":
-                AppuiScolaireService appuiService = (AppuiScolaireService) service;
-                data.put("niveau", appuiService.getNiveau());
-                data.put("typeAide", appuiService.getTypeAide());
-                data.put("montantDemande", appuiService.getMontantDemande());
-                break;
-
-            case "ActiviteCulturelleSportiveService":
-                ActiviteCulturelleSportiveService activiteService = (ActiviteCulturelleSportiveService) service;
-                data.put("typeActivite", activiteService.getTypeActivite());
-                data.put("nomActivite", activiteService.getNomActivite());
-                data.put("dateActivite", activiteService.getDateActivite());
-                break;
-        }
-
-        return data;
-    }
-
-    // Service-specific data processing methods
-    private void processTransportServiceData(TransportService service, Map<String, Object> data) {
-        if (data.containsKey("trajet")) {
-            service.setTrajet((String) data.get("trajet"));
-        }
-        if (data.containsKey("pointDepart")) {
-            service.setPointDepart((String) data.get("pointDepart"));
-        }
-        if (data.containsKey("pointArrivee")) {
-            service.setPointArrivee((String) data.get("pointArrivee"));
-        }
-        if (data.containsKey("frequence")) {
-            service.setFrequence((String) data.get("frequence"));
-        }
-    }
-
-    private void processSanteSocialeServiceData(SanteSocialeService service, Map<String, Object> data) {
-        if (data.containsKey("typeSoin")) {
-            service.setTypeSoin((String) data.get("typeSoin"));
-        }
-        if (data.containsKey("montant")) {
-            service.setMontant(Double.valueOf(data.get("montant").toString()));
-        }
-    }
-
-    private void processLogementServiceData(LogementService service, Map<String, Object> data) {
-        if (data.containsKey("typeLogement")) {
-            service.setTypeLogement((String) data.get("typeLogement"));
-        }
-        if (data.containsKey("localisationSouhaitee")) {
-            service.setLocalisationSouhaitee((String) data.get("localisationSouhaitee"));
-        }
-        if (data.containsKey("montantParticipation")) {
-            service.setMontantParticipation(Double.valueOf(data.get("montantParticipation").toString()));
-        }
-    }
-
-    private void processColonieVacanceServiceData(ColonieVacanceService service, Map<String, Object> data) {
-        if (data.containsKey("nombreEnfants")) {
-            service.setNombreEnfants(Integer.valueOf(data.get("nombreEnfants").toString()));
-        }
-        if (data.containsKey("lieuSouhaite")) {
-            service.setLieuSouhaite((String) data.get("lieuSouhaite"));
-        }
-        if (data.containsKey("periode")) {
-            service.setPeriode((String) data.get("periode"));
-        }
-    }
-
-    private void processAppuiScolaireServiceData(AppuiScolaireService service, Map<String, Object> data) {
-        if (data.containsKey("niveau")) {
-            service.setNiveau((String) data.get("niveau"));
-        }
-        if (data.containsKey("typeAide")) {
-            service.setTypeAide((String) data.get("typeAide"));
-        }
-        if (data.containsKey("montantDemande")) {
-            service.setMontantDemande(Double.valueOf(data.get("montantDemande").toString()));
-        }
+        transitionService.record(before, demande, actorId);
+        statisticsService.demandeChanged(before, StatisticsService.DemandeState.of(demande));
+        return loadDemandeDTO(demande.getId());
     }
 
-    private void processActiviteCulturelleSportiveServiceData(ActiviteCulturelleSportiveService service,
-            Map<String, Object> data) {
-        if (data.containsKey("typeActivite")) {
-            service.setTypeActivite((String) data.get("typeActivite"));
-        }
-        if (data.containsKey("nomActivite")) {
-            service.setNomActivite((String) data.get("nomActivite"));
-        }
-        if (data.containsKey("dateActivite")) {
-            service.setDateActivite((String) data.get("dateActivite"));
+    /**
+     * Vérifications faites avant le traitement des pièces jointes, pour
+     * refuser une requête sans avoir stocké de fichier.
+     */
+    @Transactional
+    public void checkUpdateAllowed(Long id, UpdateDemandeRequest request, AuthenticatedUser currentUser) {
+        parseStatut(request);
+        Demande demande = demandeRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Demande non trouvée"));
+        if (!canUpdate(currentUser, demande)) {
+            throw new RuntimeException("Utilisateur non autorisé à mettre à jour cette demande");
         }
     }
 
+    /**
+     * Enregistre les modifications ; les fichiers ont déjà été écrits dans
+     * le BlobStore par {@link UploadPipeline}, seule leur référence est
+     * enregistrée ici.
+     */
     @Transactional
-    public DemandeDTO updateDemande(Long id, UpdateDemandeRequest request, List<MultipartFile> files) {
+    public DemandeDTO updateDemande(Long id, UpdateDemandeRequest request, List<UploadPipeline.StoredFile> files,
+            AuthenticatedUser currentUser) {
 
         log.info("Updating demande ID: {}", id);
         log.info("Update request: {}", request);
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String userEmail = authentication.getName();
-        Utilisateur currentUser = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé avec l'email: " + userEmail));
 
         Demande demande = demandeRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Demande non trouvée"));
 
-        Utilisateur assigner = demande.getAssignedTo();
-
-        boolean isAdmin = currentUser.getRoles().stream()
-                .anyMatch(role -> role.getName().equals("ADMIN"));
-        boolean isSupport = currentUser.getRoles().stream()
-                .anyMatch(role -> role.getName().equals("SUPPORT"));
-
-        if (isAdmin || (isSupport && assigner != null && currentUser.equals(assigner))) {
+        if (canUpdate(currentUser, demande)) {
+            StatisticsService.DemandeState before = StatisticsService.DemandeState.of(demande);
             boolean hasUpdates = false;
 
             if (request.getCommentaire() != null) {
@@ -451,36 +355,32 @@ public class DemandeService {
                 hasUpdates = true;
             }
 
-            if (request.getStatut() != null) {
-                StatutDemande newStatut;
-                try {
-                    newStatut = StatutDemande.valueOf(request.getStatut());
-                } catch (IllegalArgumentException e) {
-                    throw new IllegalArgumentException("Statut invalide: " + request.getStatut());
+            StatutDemande newStatut = parseStatut(request);
+            if (newStatut != null) {
+                if (!newStatut.isClosed()) {
+                    demande.setDateCloture(null);
+                } else if (demande.getStatut() == null || !demande.getStatut().isClosed()) {
+                    demande.setDateCloture(java.time.LocalDateTime.now());
                 }
                 demande.setStatut(newStatut);
                 hasUpdates = true;
             }
 
-            if (files != null && !files.isEmpty()) {
-                for (MultipartFile file : files) {
-                    try {
-                        DocumentJustificatif document = new DocumentJustificatif();
-                        document.setFileName(file.getOriginalFilename());
-                        document.setContentType(file.getContentType());
-                        document.setContent(DocumentUtil.compressDocument(file.getBytes()));
-                        document.setUploadedAt(java.time.LocalDateTime.now());
-                        document.setType("reponse");
-                        document.setDemande(demande);
-                        demande.setDocumentReponse(document);
-
-                        storageRepository.save(document);
-                        hasUpdates = true;
-                    } catch (Exception e) {
-                        throw new RuntimeException(
-                                "Erreur lors du téléchargement du fichier: " + file.getOriginalFilename(), e);
-                    }
-                }
+            for (UploadPipeline.StoredFile file : files) {
+                DocumentJustificatif document = new DocumentJustificatif();
+                document.setFileName(file.fileName());
+                document.setContentType(file.contentType());
+                document.setBlobKey(file.blobKey());
+                document.setBlobSize(file.blobSize());
+                document.setCodec(file.codec());
+                document.setFileSize(file.fileSize());
+                document.setUploadedAt(java.time.LocalDateTime.now());
+                document.setType("reponse");
+                document.setDemande(demande);
+                demande.setDocumentReponse(document);
+
+                storageRepository.save(document);
+                hasUpdates = true;
             }
 
             if (hasUpdates) {
@@ -488,46 +388,33 @@ public class DemandeService {
                 log.info("demande", demande);
                 demande = demandeRepository.save(demande);
                 log.info("demande enregistre", demande);
+                transitionService.record(before, demande, currentUser.id());
+                statisticsService.demandeChanged(before, StatisticsService.DemandeState.of(demande));
             }
 
-            return DemandeDTO.builder()
-                    .id(demande.getId())
-                    .description(demande.getDescription())
-                    .statut(demande.getStatut().name())
-                    .commentaire(demande.getCommentaire())
-                    .dateSoumission(demande.getDateSoumission())
-                    .utilisateurId(demande.getUtilisateur().getId())
-                    .utilisateurNom(demande.getUtilisateur().fullname())
-                    .utilisateurEmail(demande.getUtilisateur().getEmail())
-                    .serviceId(demande.getService().getId())
-                    .serviceNom(demande.getService().getNom())
-                    .documentsJustificatifs(demande.getDocumentsJustificatifs() != null
-                            ? demande.getDocumentsJustificatifs().stream()
-                                    .map(doc -> DocumentJustificatifDto.builder()
-                                            .id(doc.getId())
-                                            .fileName(doc.getFileName())
-                                            .contentType(doc.getContentType())
-                                            .type(doc.getType())
-                                            .uploadedAt(doc.getUploadedAt() != null ? doc.getUploadedAt() : null)
-                                            .build())
-                                    .toList()
-                            : List.of())
-                    .documentReponse(demande.getDocumentReponse() != null
-                            ? DocumentJustificatifDto.builder()
-                                    .id(demande.getDocumentReponse().getId())
-                                    .fileName(demande.getDocumentReponse().getFileName())
-                                    .contentType(demande.getDocumentReponse().getContentType())
-                                    .type(demande.getDocumentReponse().getType())
-                                    .uploadedAt(demande.getDocumentReponse().getUploadedAt() != null
-                                            ? demande.getDocumentReponse().getUploadedAt()
-                                            : null)
-                                    .build()
-                            : null)
-                    .assignedToId(demande.getAssignedTo() != null ? demande.getAssignedTo().getId() : null)
-                    .assignedToUsername(demande.getAssignedTo() != null ? demande.getAssignedTo().fullname() : null)
-                    .build();
+            return loadDemandeDTO(demande.getId());
         } else {
             throw new RuntimeException("Utilisateur non autorisé à mettre à jour cette demande");
         }
     }
+
+    private boolean canUpdate(AuthenticatedUser currentUser, Demande demande) {
+        Utilisateur assigner = demande.getAssignedTo();
+
+        boolean isAdmin = currentUser.hasRole("ADMIN");
+        boolean isSupport = currentUser.hasRole("SUPPORT");
+
+        return isAdmin || (isSupport && assigner != null && currentUser.id().equals(assigner.getId()));
+    }
+
+    private StatutDemande parseStatut(UpdateDemandeRequest request) {
+        if (request.getStatut() == null) {
+            return null;
+        }
+        try {
+            return StatutDemande.valueOf(request.getStatut());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Statut invalide: " + request.getStatut());
+        }
+    }
 }
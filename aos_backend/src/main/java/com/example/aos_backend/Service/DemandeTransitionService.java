@@ -0,0 +1,100 @@
+package com.example.aos_backend.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.aos_backend.Repository.DemandeTransitionRepository;
+import com.example.aos_backend.dto.DemandeTransitionDTO;
+import com.example.aos_backend.user.Demande;
+import com.example.aos_backend.user.DemandeTransition;
+import com.example.aos_backend.user.TypeTransition;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Journal des transitions des demandes. Chaque changement de statut ou
+ * d'assignataire y est ajouté dans la transaction du changement ; le
+ * planificateur SLA en est informé après commit.
+ */
+@Service
+@RequiredArgsConstructor
+public class DemandeTransitionService {
+
+    private final DemandeTransitionRepository transitionRepository;
+    private final SlaScheduler slaScheduler;
+
+    /**
+     * Journalise ce qui a changé entre {@code before} et l'état actuel de
+     * la demande (déjà enregistrée). Sans effet si rien n'a changé.
+     */
+    public void record(StatisticsService.DemandeState before, Demande demande, Integer actorId) {
+        StatisticsService.DemandeState after = StatisticsService.DemandeState.of(demande);
+        Integer demandeId = demande.getId();
+        LocalDateTime now = LocalDateTime.now();
+
+        if (before.statut() != after.statut()) {
+            transitionRepository.save(DemandeTransition.builder()
+                    .demandeId(demandeId)
+                    .type(TypeTransition.STATUT)
+                    .fromStatut(before.statut())
+                    .toStatut(after.statut())
+                    .fromAssigneeId(before.assigneeId())
+                    .toAssigneeId(after.assigneeId())
+                    .actorId(actorId)
+                    .occurredAt(now)
+                    .build());
+            Integer serviceSlaHours = demande.getService() != null ? demande.getService().getSlaHours() : null;
+            afterCommit(() -> slaScheduler.statutChanged(demandeId, after.statut(), serviceSlaHours,
+                    after.assigneeId(), now));
+        }
+
+        if (!Objects.equals(before.assigneeId(), after.assigneeId())) {
+            transitionRepository.save(DemandeTransition.builder()
+                    .demandeId(demandeId)
+                    .type(TypeTransition.ASSIGNATION)
+                    .fromStatut(after.statut())
+                    .toStatut(after.statut())
+                    .fromAssigneeId(before.assigneeId())
+                    .toAssigneeId(after.assigneeId())
+                    .actorId(actorId)
+                    .occurredAt(now)
+                    .build());
+            afterCommit(() -> slaScheduler.assigneeChanged(demandeId, after.assigneeId()));
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<DemandeTransitionDTO> getTransitions(Integer demandeId) {
+        return transitionRepository.findByDemandeIdOrderByOccurredAtAscIdAsc(demandeId).stream()
+                .map(transition -> DemandeTransitionDTO.builder()
+                        .id(transition.getId())
+                        .type(transition.getType().name())
+                        .fromStatut(transition.getFromStatut() != null ? transition.getFromStatut().name() : null)
+                        .toStatut(transition.getToStatut() != null ? transition.getToStatut().name() : null)
+                        .fromAssigneeId(transition.getFromAssigneeId())
+                        .toAssigneeId(transition.getToAssigneeId())
+                        .actorId(transition.getActorId())
+                        .occurredAt(transition.getOccurredAt())
+                        .build())
+                .toList();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.aos_backend.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Blob;
+import java.util.Optional;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.aos_backend.Repository.StorageRepository;
+import com.example.aos_backend.Util.DocumentUtil;
+import com.example.aos_backend.dto.DocumentRow;
+import com.example.aos_backend.storage.BlobStore;
+import com.example.aos_backend.user.DocumentCodec;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Lecture en flux du contenu des documents justificatifs.
+ *
+ * Le contenu stocké est lu en flux depuis le BlobStore (ou depuis la
+ * colonne LOB pour les documents pas encore migrés) et décodé à la volée
+ * selon son codec vers le flux de sortie via un tampon borné : aucun tableau contenant
+ * le document entier n'est alloué.
+ */
+@Service
+@RequiredArgsConstructor
+public class DocumentContentService {
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private final StorageRepository storageRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BlobStore blobStore;
+
+    public Optional<DocumentRow> findJustificatif(Long id) {
+        return storageRepository.findRowById(id);
+    }
+
+    /**
+     * Écrit {@code length} octets du document décompressé à partir de
+     * {@code offset} ; {@code length < 0} signifie jusqu'à la fin.
+     */
+    public void streamJustificatif(DocumentRow document, long offset, long length, OutputStream out)
+            throws IOException {
+        if (document.getBlobKey() != null) {
+            blobStore.read(document.getBlobKey(), in -> decodeRange(in, document.getCodec(), out, offset, length));
+            return;
+        }
+        // Document historique encore stocké en ligne. Les large objects
+        // PostgreSQL ne sont lisibles que dans une transaction.
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(
+                    "SELECT content FROM document_justificatif WHERE id = ?",
+                    rs -> {
+                        Blob blob = rs.getBlob(1);
+                        if (blob == null) {
+                            return;
+                        }
+                        try (InputStream in = blob.getBinaryStream()) {
+                            decodeRange(in, document.getCodec(), out, offset, length);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        } finally {
+                            blob.free();
+                        }
+                    },
+                    document.getId()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void decodeRange(InputStream stored, DocumentCodec codec, OutputStream out, long offset, long length)
+            throws IOException {
+        try (InputStream in = DocumentUtil.decode(stored, codec)) {
+            copyRange(in, out, offset, length);
+        }
+    }
+
+    private void copyRange(InputStream in, OutputStream out, long offset, long length) throws IOException {
+        long skipped = 0;
+        while (skipped < offset) {
+            long n = in.skip(offset - skipped);
+            if (n <= 0) {
+                return;
+            }
+            skipped += n;
+        }
+
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long remaining = length < 0 ? Long.MAX_VALUE : length;
+        while (remaining > 0) {
+            int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+            if (read < 0) {
+                break;
+            }
+            out.write(buffer, 0, read);
+            remaining -= read;
+        }
+        out.flush();
+    }
+}
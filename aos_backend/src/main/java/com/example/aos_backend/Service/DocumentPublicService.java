@@ -1,10 +1,11 @@
 package com.example.aos_backend.Service;
 
 import com.example.aos_backend.Repository.DocumentPublicRepository;
+import com.example.aos_backend.Repository.UtilisateurRepository;
 import com.example.aos_backend.Util.DocumentUtil;
 import com.example.aos_backend.dto.DocumentPublicDTO;
+import com.example.aos_backend.storage.BlobStore;
 import com.example.aos_backend.user.DocumentPublic;
-import com.example.aos_backend.user.Utilisateur;
 
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -13,6 +14,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -22,6 +27,8 @@ import java.util.stream.Collectors;
 public class DocumentPublicService {
 
     private final DocumentPublicRepository documentPublicRepository;
+    private final UtilisateurRepository utilisateurRepository;
+    private final BlobStore blobStore;
 
     @Transactional
     public List<DocumentPublicDTO> getAllDocuments() {
@@ -40,18 +47,24 @@ public class DocumentPublicService {
 
     @Transactional
     public DocumentPublicDTO createDocument(String titre, String description, String type, MultipartFile file,
-            Utilisateur user) {
+            Integer publisherId) {
         try {
             DocumentPublic document = new DocumentPublic();
             document.setTitre(titre);
             document.setDescription(description);
             document.setType(type);
-            document.setPublishedBy(user);
+            // Référence sans chargement : seule la clé étrangère est écrite
+            document.setPublishedBy(utilisateurRepository.getReferenceById(publisherId));
 
             if (file != null && !file.isEmpty()) {
                 document.setFileName(file.getOriginalFilename());
                 document.setContentType(file.getContentType());
-                document.setContent(DocumentUtil.compressDocument(file.getBytes()));
+                DocumentUtil.EncodedDocument encoded = DocumentUtil.encode(file.getBytes(), file.getContentType());
+                BlobStore.BlobRef blob = blobStore.put(new ByteArrayInputStream(encoded.data()));
+                document.setBlobKey(blob.key());
+                document.setBlobSize(blob.size());
+                document.setCodec(encoded.codec());
+                document.setContent(null);
             }
 
             document = documentPublicRepository.save(document);
@@ -75,7 +88,13 @@ public class DocumentPublicService {
                         if (file != null && !file.isEmpty()) {
                             document.setFileName(file.getOriginalFilename());
                             document.setContentType(file.getContentType());
-                            document.setContent(DocumentUtil.compressDocument(file.getBytes()));
+                            DocumentUtil.EncodedDocument encoded = DocumentUtil.encode(file.getBytes(),
+                                    file.getContentType());
+                            BlobStore.BlobRef blob = blobStore.put(new ByteArrayInputStream(encoded.data()));
+                            document.setBlobKey(blob.key());
+                            document.setBlobSize(blob.size());
+                            document.setCodec(encoded.codec());
+                            document.setContent(null);
                         }
 
                         return convertToDTO(documentPublicRepository.save(document));
@@ -94,10 +113,23 @@ public class DocumentPublicService {
     @Transactional
     public byte[] downloadDocument(Long id) {
         return documentPublicRepository.findById(id)
-                .map(document -> DocumentUtil.decompressDocument(document.getContent()))
+                .map(this::readContent)
                 .orElse(null);
     }
 
+    private byte[] readContent(DocumentPublic document) {
+        if (document.getBlobKey() == null) {
+            return document.getContent() != null ? DocumentUtil.decode(document.getContent(), document.getCodec()) : null;
+        }
+        try {
+            ByteArrayOutputStream stored = new ByteArrayOutputStream();
+            blobStore.read(document.getBlobKey(), in -> in.transferTo(stored));
+            return DocumentUtil.decode(stored.toByteArray(), document.getCodec());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @Transactional
     private DocumentPublicDTO convertToDTO(DocumentPublic document) {
         return DocumentPublicDTO.builder()
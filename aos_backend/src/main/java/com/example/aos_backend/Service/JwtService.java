@@ -15,13 +15,22 @@ import java.util.ArrayList;
 import java.util.stream.Collectors;
 import org.springframework.stereotype.Service;
 
+import jakarta.annotation.PostConstruct;
+
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 
 @Service
 public class JwtService {
+    // Claims lus par JwtVerifier pour construire le principal sans requête
+    public static final String USER_ID_CLAIM = "userId";
+    public static final String USER_TYPE_CLAIM = "userType";
+    // Token restreint à une ressource (cookie du flux SSE) ; absent des tokens de connexion
+    public static final String SCOPE_CLAIM = "scope";
+    public static final String NOTIFICATION_STREAM_SCOPE = "notifications:stream";
 
     @Value("${application.security.jwt.expiration}")
     private long jwtExpiration;
@@ -29,8 +38,24 @@ public class JwtService {
     @Value("${application.security.jwt.secret-key}")
     private String secretKey;
 
-    public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+    // Clé et parser construits une seule fois : le parser est thread-safe
+    private Key signInKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+        this.signInKey = Keys.hmacShaKeyFor(keyBytes);
+        this.parser = Jwts.parserBuilder()
+            .setSigningKey(signInKey)
+            .build();
+    }
+
+    public String generateToken(UserDetails userDetails, Integer userId, String userType) {
+        HashMap<String, Object> claims = new HashMap<>();
+        claims.put(USER_ID_CLAIM, userId);
+        claims.put(USER_TYPE_CLAIM, userType);
+        return generateToken(claims, userDetails);
     }
 
     private String generateToken(
@@ -53,31 +78,44 @@ public class JwtService {
             .compact();
     }
 
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * Token du cookie de /notifications/stream : même signature, restreint
+     * au flux par le claim scope, expire avec le token de connexion.
+     */
+    public String generateStreamToken(String username, Integer userId, Date expiration) {
+        return Jwts
+            .builder()
+            .claim(USER_ID_CLAIM, userId)
+            .claim(SCOPE_CLAIM, NOTIFICATION_STREAM_SCOPE)
+            .setSubject(username)
+            .setIssuedAt(new Date(System.currentTimeMillis()))
+            .setExpiration(expiration)
+            .signWith(getSignInKey())
+            .compact();
     }
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+    private Key getSignInKey() {
+        return signInKey;
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean isTokenValid(String token, UserDetails userDetails) {
+        return isTokenValid(extractAllClaims(token), userDetails);
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date());
     }
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
 
-    @SuppressWarnings("unchecked")
     public List<GrantedAuthority> extractAuthorities(String token) {
-        final Claims claims = extractAllClaims(token);
+        return extractAuthorities(extractAllClaims(token));
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<GrantedAuthority> extractAuthorities(Claims claims) {
         List<String> authorities = (List<String>) claims.get("authorities");
         
         if (authorities == null) {
@@ -89,15 +127,31 @@ public class JwtService {
             .collect(Collectors.toList());
     }
 
+    // null pour un token émis avant l'ajout des claims
+    public Integer extractUserId(Claims claims) {
+        return claims.get(USER_ID_CLAIM, Integer.class);
+    }
+
+    public String extractUserType(Claims claims) {
+        return claims.get(USER_TYPE_CLAIM, String.class);
+    }
+
+    // null pour un token de connexion
+    public String extractScope(Claims claims) {
+        return claims.get(SCOPE_CLAIM, String.class);
+    }
+
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
         final Claims claims = extractAllClaims(token);
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-            .setSigningKey(getSignInKey())
-            .build()
+    /**
+     * Vérifie la signature et l'expiration en une seule passe ; lève une
+     * JwtException si le token est invalide.
+     */
+    public Claims extractAllClaims(String token) {
+        return parser
             .parseClaimsJws(token)
             .getBody();
     }
@@ -19,6 +19,7 @@ public class ReclamationService {
 
     private final ReclamationRepository reclamationRepository;
     private final UtilisateurRepository userRepository;
+    private final StatisticsService statisticsService;
 
     public List<Reclamation> getAllReclamations() {
         List<Reclamation> reclamations = reclamationRepository.findAll();
@@ -55,6 +56,7 @@ public class ReclamationService {
             }
         }
 
+        StatutReclamation previousStatut = reclamation.getStatut();
         reclamation.setAssignedTo(user);
         reclamation.setLastModifiedDate(new java.sql.Timestamp(System.currentTimeMillis()).toLocalDateTime());
 
@@ -64,6 +66,7 @@ public class ReclamationService {
             reclamation.setStatut(StatutReclamation.AFFECTEE);
         }
         reclamation = reclamationRepository.save(reclamation);
+        statisticsService.reclamationChanged(previousStatut, reclamation.getStatut());
 
         return reclamation;
     }
@@ -78,6 +81,7 @@ public class ReclamationService {
     public Reclamation updateReclamationStatus(Long complaintId, UpdateRequest request) {
         Reclamation reclamation = reclamationRepository.findById(complaintId)
                 .orElseThrow(() -> new RuntimeException("Reclamation not found with id: " + complaintId));
+        StatutReclamation previousStatut = reclamation.getStatut();
 
         if (request.getStatut() != null) {
             try {
@@ -94,6 +98,7 @@ public class ReclamationService {
 
         reclamation.setLastModifiedDate(java.time.LocalDateTime.now());
         reclamation = reclamationRepository.save(reclamation);
+        statisticsService.reclamationChanged(previousStatut, reclamation.getStatut());
         return reclamation;
     }
 
@@ -0,0 +1,149 @@
+package com.example.aos_backend.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.aos_backend.Repository.ServiceRepository;
+import com.example.aos_backend.dto.ServiceDTO;
+import com.example.aos_backend.user.ServiceEntity;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Catalogue des services servi depuis un instantané en mémoire : le corps
+ * JSON de la liste et de chaque service est sérialisé une fois, avec un
+ * ETag fort calculé sur ces octets.
+ *
+ * L'instantané est reconstruit en entier puis remplacé d'un coup après
+ * chaque modification validée, et périodiquement pour rattraper les
+ * modifications faites par une autre instance.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ServiceCatalog {
+
+    public record Entry(byte[] body, String etag) {
+    }
+
+    private record Snapshot(Entry all, Map<Long, Entry> byId) {
+    }
+
+    private final ServiceRepository serviceRepository;
+    private final ObjectMapper objectMapper;
+
+    private volatile Snapshot snapshot;
+
+    public Entry all() {
+        return current().all();
+    }
+
+    // null si le service n'existe pas
+    public Entry byId(Long id) {
+        return current().byId().get(id);
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            rebuild();
+            current = snapshot;
+            if (current == null) {
+                throw new IllegalStateException("Catalogue des services indisponible");
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Reconstruit le catalogue après le commit de la transaction en cours
+     * (immédiatement hors transaction).
+     */
+    public void refreshAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    rebuild();
+                }
+            });
+        } else {
+            rebuild();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${app.catalog.refresh-interval-ms:300000}",
+            fixedDelayString = "${app.catalog.refresh-interval-ms:300000}")
+    public void scheduledRefresh() {
+        rebuild();
+    }
+
+    // Un échec garde l'instantané précédent
+    synchronized void rebuild() {
+        try {
+            List<ServiceDTO> services = serviceRepository.findAll().stream()
+                    .map(ServiceCatalog::toDTO)
+                    .toList();
+            Map<Long, Entry> byId = new HashMap<>();
+            for (ServiceDTO service : services) {
+                byId.put(service.getId(), entry(service));
+            }
+            snapshot = new Snapshot(entry(services), Map.copyOf(byId));
+        } catch (Exception e) {
+            log.error("Service catalog rebuild failed, keeping previous snapshot", e);
+        }
+    }
+
+    private Entry entry(Object value) throws JsonProcessingException {
+        byte[] body = objectMapper.writeValueAsBytes(value);
+        return new Entry(body, etag(body));
+    }
+
+    private static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"sc-" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+
+    static ServiceDTO toDTO(ServiceEntity serviceEntity) {
+        return ServiceDTO.builder()
+                .id(serviceEntity.getId())
+                .nom(serviceEntity.getNom())
+                .type(serviceEntity.getType())
+                .icon(serviceEntity.getServiceInfo() != null ? serviceEntity.getServiceInfo().getIcon() : "business")
+                .title(serviceEntity.getServiceInfo() != null ? serviceEntity.getServiceInfo().getTitle()
+                        : serviceEntity.getNom())
+                .description(
+                        serviceEntity.getServiceInfo() != null ? serviceEntity.getServiceInfo().getDescription() : "")
+                .features(serviceEntity.getServiceInfo() != null ? serviceEntity.getServiceInfo().getFeatures()
+                        : List.of())
+                .isActive(serviceEntity.getIsActive())
+                .formFields(ServiceSchemas.formFields(serviceEntity.getType()))
+                .requiredDocuments(ServiceSchemas.requiredDocuments(serviceEntity.getType()))
+                .attributes(ServiceSchemas.read(serviceEntity.getType(), serviceEntity.getAttributes()))
+                .slaHours(serviceEntity.getSlaHours())
+                .build();
+    }
+}
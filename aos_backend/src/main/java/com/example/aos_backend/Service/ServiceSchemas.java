@@ -0,0 +1,205 @@
+package com.example.aos_backend.Service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.example.aos_backend.dto.FormField;
+
+/**
+ * Schéma de chaque type de service : attributs propres au type (stockés
+ * dans la colonne JSONB {@code service.attributes}), champs du formulaire
+ * et pièces demandées.
+ *
+ * C'est la seule définition des attributs : les champs de formulaire, la
+ * validation et la conversion des valeurs en découlent. Tout est construit
+ * une fois au chargement de la classe ; un nouveau type de service ne
+ * demande ni classe ni changement de schéma.
+ */
+final class ServiceSchemas {
+
+    private record Field(String name, String inputType, String label, String placeholder, List<String> options,
+            Function<Object, Object> converter) {
+    }
+
+    private record Schema(List<Field> fields, Map<String, Field> byName, List<FormField> formFields,
+            List<String> requiredDocuments) {
+    }
+
+    private static final List<String> DEFAULT_DOCUMENTS = List.of("Pièce d'identité", "Justificatif de revenus");
+
+    // Ordre d'insertion conservé : c'est celui des types proposés à l'admin
+    private static final Map<String, Schema> SCHEMAS;
+
+    static {
+        Map<String, Schema> schemas = new LinkedHashMap<>();
+        schemas.put("TransportService", schema(
+                List.of(text("trajet", "Trajet", "Ex: Casa-Rabat"),
+                        text("pointDepart", "Point de départ", null),
+                        text("pointArrivee", "Point d'arrivée", null),
+                        select("frequence", "Fréquence", "Quotidien", "Hebdomadaire", "Mensuel", "Occasionnel")),
+                List.of("Justificatif de domicile", "Attestation de travail")));
+        schemas.put("SanteSocialeService", schema(
+                List.of(select("typeSoin", "Type de soin", "Consultation", "Chirurgie", "Médicaments", "Examens"),
+                        decimal("montant", "Montant (DH)")),
+                List.of("Ordonnance médicale", "Facture originale", "Attestation de mutuelle")));
+        schemas.put("LogementService", schema(
+                List.of(select("typeLogement", "Type de logement", "Appartement", "Maison", "Studio"),
+                        text("localisationSouhaitee", "Localisation souhaitée", null),
+                        decimal("montantParticipation", "Montant de participation (DH)")),
+                List.of("Justificatif de revenus", "Attestation de domicile", "Contrat de location")));
+        schemas.put("ColonieVacanceService", schema(
+                List.of(integer("nombreEnfants", "Nombre d'enfants"),
+                        text("lieuSouhaite", "Lieu souhaité", null),
+                        text("periode", "Période", "Ex: Juillet 2024")),
+                List.of("Certificat de scolarité", "Justificatif de revenus")));
+        schemas.put("AppuiScolaireService", schema(
+                List.of(select("niveau", "Niveau scolaire", "Primaire", "Collège", "Lycée", "Supérieur"),
+                        select("typeAide", "Type d'aide", "Cours particuliers", "Fournitures", "Frais de scolarité"),
+                        decimal("montantDemande", "Montant demandé (DH)")),
+                List.of("Certificat de scolarité", "Justificatif de revenus", "Bulletins scolaires")));
+        schemas.put("ActiviteCulturelleSportiveService", schema(
+                List.of(select("typeActivite", "Type d'activité", "Sport", "Culture", "Loisir"),
+                        text("nomActivite", "Nom de l'activité", null),
+                        date("dateActivite", "Date de l'activité")),
+                List.of("Certificat médical", "Justificatif de revenus")));
+        SCHEMAS = Collections.unmodifiableMap(schemas);
+    }
+
+    private ServiceSchemas() {
+    }
+
+    static List<String> types() {
+        return List.copyOf(SCHEMAS.keySet());
+    }
+
+    static List<FormField> formFields(String type) {
+        Schema schema = type == null ? null : SCHEMAS.get(type);
+        return schema == null ? List.of() : schema.formFields();
+    }
+
+    static List<String> requiredDocuments(String type) {
+        Schema schema = type == null ? null : SCHEMAS.get(type);
+        return schema == null ? DEFAULT_DOCUMENTS : schema.requiredDocuments();
+    }
+
+    /**
+     * Tous les attributs déclarés pour le type, dans l'ordre, convertis à
+     * leur type Java ; null pour un attribut absent. Vide pour un type
+     * inconnu.
+     *
+     * Une valeur stockée qui ne se convertit pas (date saisie librement
+     * avant la reprise, par exemple) est rendue telle quelle : la
+     * validation ne s'applique qu'à l'écriture.
+     */
+    static Map<String, Object> read(String type, Map<String, Object> stored) {
+        Schema schema = type == null ? null : SCHEMAS.get(type);
+        if (schema == null) {
+            return new LinkedHashMap<>();
+        }
+        Map<String, Object> data = new LinkedHashMap<>(schema.fields().size() * 2);
+        for (Field field : schema.fields()) {
+            Object value = stored != null ? stored.get(field.name()) : null;
+            data.put(field.name(), value != null ? convertStored(field, value) : null);
+        }
+        return data;
+    }
+
+    /**
+     * Applique {@code changes} aux attributs stockés et retourne une nouvelle
+     * map ; une valeur null retire l'attribut. Lève une
+     * IllegalArgumentException pour un type ou un nom inconnu, ou une
+     * valeur invalide (nombre, date, option hors liste).
+     */
+    static Map<String, Object> write(String type, Map<String, Object> stored, Map<String, Object> changes) {
+        Schema schema = type == null ? null : SCHEMAS.get(type);
+        if (schema == null) {
+            throw new IllegalArgumentException("Type de service non supporté: " + type);
+        }
+        Map<String, Object> updated = stored != null ? new HashMap<>(stored) : new HashMap<>();
+        if (changes == null) {
+            return updated;
+        }
+        for (Map.Entry<String, Object> change : changes.entrySet()) {
+            Field field = schema.byName().get(change.getKey());
+            if (field == null) {
+                throw new IllegalArgumentException("Attribut inconnu pour " + type + ": " + change.getKey());
+            }
+            if (change.getValue() == null) {
+                updated.remove(field.name());
+                continue;
+            }
+            Object value = convert(field, change.getValue());
+            if (field.options() != null && !field.options().contains(value)) {
+                throw new IllegalArgumentException("Valeur non proposée pour " + field.name() + ": " + value);
+            }
+            updated.put(field.name(), value);
+        }
+        return updated;
+    }
+
+    private static Object convert(Field field, Object value) {
+        try {
+            return field.converter().apply(value);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Valeur invalide pour " + field.name() + ": " + value);
+        }
+    }
+
+    private static Object convertStored(Field field, Object value) {
+        try {
+            return field.converter().apply(value);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            return value;
+        }
+    }
+
+    private static Schema schema(List<Field> fields, List<String> requiredDocuments) {
+        Map<String, Field> byName = new HashMap<>();
+        List<FormField> formFields = new ArrayList<>(fields.size());
+        for (Field field : fields) {
+            byName.put(field.name(), field);
+            // Tous les champs existants sont obligatoires
+            formFields.add(FormField.builder()
+                    .id(String.valueOf(formFields.size() + 1))
+                    .name(field.name())
+                    .type(field.inputType())
+                    .label(field.label())
+                    .placeholder(field.placeholder())
+                    .required(true)
+                    .options(field.options())
+                    .build());
+        }
+        return new Schema(fields, Map.copyOf(byName), List.copyOf(formFields), requiredDocuments);
+    }
+
+    private static Field text(String name, String label, String placeholder) {
+        return new Field(name, "text", label, placeholder, null, Object::toString);
+    }
+
+    private static Field select(String name, String label, String... options) {
+        return new Field(name, "select", label, null, List.of(options), Object::toString);
+    }
+
+    // Format ISO (yyyy-MM-dd) du champ date ; la valeur reste stockée en texte
+    private static Field date(String name, String label) {
+        return new Field(name, "date", label, null, null, value -> LocalDate.parse(value.toString()).toString());
+    }
+
+    // Le JSON rend les nombres en Integer, Long ou Double selon leur valeur
+    private static Field decimal(String name, String label) {
+        return new Field(name, "number", label, null, null,
+                value -> value instanceof Number number ? number.doubleValue() : Double.valueOf(value.toString()));
+    }
+
+    private static Field integer(String name, String label) {
+        return new Field(name, "number", label, null, null,
+                value -> value instanceof Number number ? number.intValue() : Integer.valueOf(value.toString()));
+    }
+}
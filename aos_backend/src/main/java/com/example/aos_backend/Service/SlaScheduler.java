@@ -0,0 +1,211 @@
+package com.example.aos_backend.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.aos_backend.Notification.NotificationService;
+import com.example.aos_backend.Repository.DemandeRepository;
+import com.example.aos_backend.Repository.DemandeTransitionRepository;
+import com.example.aos_backend.Util.HashedTimingWheel;
+import com.example.aos_backend.dto.OpenDemandeRow;
+import com.example.aos_backend.user.Demande;
+import com.example.aos_backend.user.DemandeTransition;
+import com.example.aos_backend.user.StatutDemande;
+import com.example.aos_backend.user.TypeTransition;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Échéances SLA des demandes ouvertes, tenues en mémoire dans une roue
+ * temporelle : une échéance par demande, pour son statut courant.
+ *
+ * La roue est alimentée par les changements de statut (après commit),
+ * reconstruite au démarrage depuis les demandes ouvertes, puis complétée
+ * périodiquement par les demandes soumises depuis le dernier passage
+ * (créées par cette instance ou par l'application agents), lues par
+ * l'index sur date_soumission.
+ *
+ * À l'échéance, l'alerte est réservée par une mise à jour conditionnelle
+ * de la demande (statut inchangé, dépassement pas encore signalé) : une
+ * seule instance l'inscrit au journal des transitions et la notifie, dans
+ * la même transaction.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SlaScheduler {
+    private static final List<StatutDemande> OPEN_STATUTS = List.of(StatutDemande.EN_ATTENTE,
+            StatutDemande.EN_COURS);
+    // Relit aussi les demandes datées juste avant le passage précédent mais validées après
+    private static final Duration CATCH_UP_OVERLAP = Duration.ofMinutes(5);
+
+    private record SlaTimer(Integer demandeId, StatutDemande statut, Integer assigneeId, LocalDateTime enteredAt,
+            long deadlineMs) {
+    }
+
+    private final DemandeRepository demandeRepository;
+    private final DemandeTransitionRepository transitionRepository;
+    private final NotificationService notificationService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.sla.en-attente-hours:48}")
+    private long enAttenteHours;
+
+    @Value("${app.sla.en-cours-hours:120}")
+    private long enCoursHours;
+
+    @Value("${app.sla.tick-ms:60000}")
+    private long tickMs;
+
+    @Value("${app.sla.wheel-size:512}")
+    private int wheelSize;
+
+    private HashedTimingWheel<Integer, SlaTimer> wheel;
+
+    // Début du dernier passage sur la table ; null avant la reconstruction
+    private volatile LocalDateTime lastScan;
+
+    @PostConstruct
+    void init() {
+        wheel = new HashedTimingWheel<>(tickMs, wheelSize, System.currentTimeMillis());
+    }
+
+    /**
+     * La demande entre dans {@code statut} à {@code enteredAt} : remplace son
+     * échéance, ou la retire si le statut est clos.
+     */
+    public void statutChanged(Integer demandeId, StatutDemande statut, Integer serviceSlaHours, Integer assigneeId,
+            LocalDateTime enteredAt) {
+        if (statut == null || statut.isClosed()) {
+            wheel.cancel(demandeId);
+            return;
+        }
+        long deadlineMs = toEpochMs(enteredAt) + slaDuration(statut, serviceSlaHours).toMillis();
+        wheel.schedule(demandeId, new SlaTimer(demandeId, statut, assigneeId, enteredAt, deadlineMs), deadlineMs);
+    }
+
+    // L'échéance ne bouge pas ; seul le destinataire de l'alerte change
+    public void assigneeChanged(Integer demandeId, Integer assigneeId) {
+        SlaTimer timer = wheel.get(demandeId);
+        if (timer != null) {
+            wheel.schedule(demandeId, new SlaTimer(demandeId, timer.statut(), assigneeId, timer.enteredAt(),
+                    timer.deadlineMs()), timer.deadlineMs());
+        }
+    }
+
+    /**
+     * Replanifie les demandes ouvertes. L'entrée dans le statut courant est
+     * le dernier changement de statut journalisé, à défaut la soumission ;
+     * un dépassement déjà signalé depuis n'est pas renotifié.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        LocalDateTime scanStart = LocalDateTime.now();
+        try {
+            int scheduled = schedule(transitionRepository.findOpenDemandes(OPEN_STATUTS));
+            lastScan = scanStart;
+            log.info("SLA scheduler rebuilt: {} open demandes scheduled", scheduled);
+        } catch (Exception e) {
+            log.error("SLA scheduler rebuild failed", e);
+        }
+    }
+
+    // Demandes soumises depuis le dernier passage, sans changement de statut pour les signaler
+    @Scheduled(initialDelayString = "${app.sla.catch-up-interval-ms:60000}",
+            fixedDelayString = "${app.sla.catch-up-interval-ms:60000}")
+    public void catchUp() {
+        LocalDateTime since = lastScan;
+        if (since == null) {
+            rebuild();
+            return;
+        }
+        LocalDateTime scanStart = LocalDateTime.now();
+        try {
+            int scheduled = schedule(transitionRepository.findOpenDemandesSubmittedSince(OPEN_STATUTS,
+                    since.minus(CATCH_UP_OVERLAP)));
+            lastScan = scanStart;
+            if (scheduled > 0) {
+                log.info("SLA scheduler caught up: {} new open demandes scheduled", scheduled);
+            }
+        } catch (Exception e) {
+            log.error("SLA scheduler catch-up failed", e);
+        }
+    }
+
+    private int schedule(List<OpenDemandeRow> rows) {
+        int scheduled = 0;
+        for (OpenDemandeRow row : rows) {
+            LocalDateTime enteredAt = row.getLastStatutChange() != null ? row.getLastStatutChange()
+                    : row.getDateSoumission() != null ? row.getDateSoumission() : LocalDateTime.now();
+            if (row.getLastSlaBreach() != null && !row.getLastSlaBreach().isBefore(enteredAt)) {
+                continue;
+            }
+            long deadlineMs = toEpochMs(enteredAt)
+                    + slaDuration(row.getStatut(), row.getServiceSlaHours()).toMillis();
+            // Une échéance déjà planifiée (changement validé entre-temps) est la bonne
+            if (wheel.scheduleIfAbsent(row.getId(),
+                    new SlaTimer(row.getId(), row.getStatut(), row.getAssignedToId(), enteredAt, deadlineMs),
+                    deadlineMs)) {
+                scheduled++;
+            }
+        }
+        return scheduled;
+    }
+
+    @Scheduled(fixedDelayString = "${app.sla.tick-ms:60000}")
+    public void tick() {
+        for (SlaTimer timer : wheel.advance(System.currentTimeMillis())) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> breach(timer));
+            } catch (RuntimeException e) {
+                log.error("SLA breach for demande {} could not be recorded", timer.demandeId(), e);
+            }
+        }
+    }
+
+    private void breach(SlaTimer timer) {
+        // Supprimée, changée hors de cette instance, ou déjà signalée par une autre instance
+        if (demandeRepository.claimSlaBreach(timer.demandeId(), timer.statut().name(), timer.enteredAt(),
+                LocalDateTime.now()) == 0) {
+            return;
+        }
+        Demande demande = demandeRepository.findById(timer.demandeId().longValue()).orElse(null);
+        if (demande == null) {
+            return;
+        }
+        Integer assigneeId = demande.getAssignedTo() != null ? demande.getAssignedTo().getId() : null;
+        transitionRepository.save(DemandeTransition.builder()
+                .demandeId(timer.demandeId())
+                .type(TypeTransition.SLA_DEPASSE)
+                .fromStatut(timer.statut())
+                .toStatut(timer.statut())
+                .fromAssigneeId(assigneeId)
+                .toAssigneeId(assigneeId)
+                .occurredAt(LocalDateTime.now())
+                .build());
+        notificationService.notifySlaBreach(timer.demandeId(), timer.statut(), assigneeId, timer.enteredAt());
+        log.info("SLA breached for demande {} in {}", timer.demandeId(), timer.statut());
+    }
+
+    private Duration slaDuration(StatutDemande statut, Integer serviceSlaHours) {
+        if (serviceSlaHours != null) {
+            return Duration.ofHours(serviceSlaHours);
+        }
+        return Duration.ofHours(statut == StatutDemande.EN_COURS ? enCoursHours : enAttenteHours);
+    }
+
+    private static long toEpochMs(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.aos_backend.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.aos_backend.Repository.DemandeRepository;
+import com.example.aos_backend.Repository.ReclamationRepository;
+import com.example.aos_backend.Repository.UtilisateurRepository;
+import com.example.aos_backend.user.Demande;
+import com.example.aos_backend.user.StatutDemande;
+import com.example.aos_backend.user.StatutReclamation;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compteurs du tableau de bord tenus en mémoire.
+ *
+ * Les services signalent chaque changement d'état (après commit) et les
+ * compteurs sont ajustés par différence. Un recalage périodique depuis la
+ * base corrige les écarts, notamment les demandes créées par l'application
+ * agents qui ne passe pas par ce backend.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StatisticsService {
+    // Historique des soumissions par jour conservé en mémoire
+    private static final int DAYS_KEPT = 30;
+
+    public record DemandeState(StatutDemande statut, Long serviceId, Integer assigneeId,
+            LocalDateTime dateSoumission, LocalDateTime dateCloture) {
+
+        public static DemandeState of(Demande demande) {
+            return new DemandeState(
+                    demande.getStatut(),
+                    demande.getService() != null ? demande.getService().getId() : null,
+                    demande.getAssignedTo() != null ? demande.getAssignedTo().getId() : null,
+                    demande.getDateSoumission(),
+                    demande.getDateCloture());
+        }
+    }
+
+    private static class Counters {
+        final Map<StatutDemande, Long> demandesByStatut = new ConcurrentHashMap<>();
+        final Map<Long, Long> demandesByService = new ConcurrentHashMap<>();
+        final Map<Integer, Long> demandesByAssignee = new ConcurrentHashMap<>();
+        final Map<LocalDate, Long> demandesByDay = new ConcurrentHashMap<>();
+        final Map<StatutReclamation, Long> reclamationsByStatut = new ConcurrentHashMap<>();
+        final AtomicLong totalDemandes = new AtomicLong();
+        final AtomicLong closedDemandes = new AtomicLong();
+        final AtomicLong resolutionSeconds = new AtomicLong();
+        volatile long totalUsers;
+        volatile long usersThisMonth;
+        volatile LocalDateTime reconciledAt;
+    }
+
+    private final DemandeRepository demandeRepository;
+    private final ReclamationRepository reclamationRepository;
+    private final UtilisateurRepository utilisateurRepository;
+
+    private volatile Counters counters = new Counters();
+
+    /**
+     * Signale un changement de demande ; {@code before} est null pour une
+     * création, {@code after} pour une suppression.
+     */
+    public void demandeChanged(DemandeState before, DemandeState after) {
+        afterCommit(() -> {
+            Counters current = counters;
+            apply(current, before, -1);
+            apply(current, after, 1);
+        });
+    }
+
+    public void reclamationChanged(StatutReclamation before, StatutReclamation after) {
+        if (before == after) {
+            return;
+        }
+        afterCommit(() -> {
+            Counters current = counters;
+            add(current.reclamationsByStatut, before, -1);
+            add(current.reclamationsByStatut, after, 1);
+        });
+    }
+
+    public Map<String, Object> snapshot() {
+        Counters current = counters;
+        Map<String, Object> stats = new TreeMap<>();
+        stats.put("totalUsers", current.totalUsers);
+        stats.put("usersChangeThisMonth", current.usersThisMonth);
+        stats.put("totalRequests", current.totalDemandes.get());
+        stats.put("pendingRequests", current.demandesByStatut.getOrDefault(StatutDemande.EN_ATTENTE, 0L));
+        stats.put("completedRequests", current.demandesByStatut.getOrDefault(StatutDemande.ACCEPTEE, 0L));
+        stats.put("requestsChangeToday", current.demandesByDay.getOrDefault(LocalDate.now(), 0L));
+        stats.put("averageResolutionTime", averageResolutionDays(current));
+        stats.put("requestsByStatus", new TreeMap<>(current.demandesByStatut));
+        stats.put("requestsByService", new TreeMap<>(current.demandesByService));
+        stats.put("requestsByAssignee", new TreeMap<>(current.demandesByAssignee));
+        stats.put("requestsPerDay", new TreeMap<>(current.demandesByDay));
+        stats.put("complaintsByStatus", new TreeMap<>(current.reclamationsByStatut));
+        stats.put("reconciledAt", current.reconciledAt);
+        return stats;
+    }
+
+    // Durée moyenne entre soumission et clôture, en jours (une décimale)
+    private static double averageResolutionDays(Counters current) {
+        long closed = current.closedDemandes.get();
+        if (closed <= 0) {
+            return 0;
+        }
+        double days = current.resolutionSeconds.get() / (double) closed / Duration.ofDays(1).toSeconds();
+        return Math.round(days * 10) / 10.0;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reconcile();
+    }
+
+    /**
+     * Recharge tous les compteurs depuis la base puis remplace l'ensemble
+     * d'un coup. Un changement signalé pendant le recalage peut être perdu ;
+     * le recalage suivant le rattrape.
+     */
+    @Scheduled(initialDelayString = "${app.stats.reconcile-interval-ms:300000}",
+            fixedDelayString = "${app.stats.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        try {
+            Counters fresh = new Counters();
+            for (Object[] row : demandeRepository.countGroupByStatut()) {
+                add(fresh.demandesByStatut, (StatutDemande) row[0], (Long) row[1]);
+                fresh.totalDemandes.addAndGet((Long) row[1]);
+            }
+            for (Object[] row : demandeRepository.countGroupByServiceId()) {
+                add(fresh.demandesByService, (Long) row[0], (Long) row[1]);
+            }
+            for (Object[] row : demandeRepository.countGroupByAssignedToId()) {
+                add(fresh.demandesByAssignee, (Integer) row[0], (Long) row[1]);
+            }
+            LocalDateTime since = LocalDate.now().minusDays(DAYS_KEPT - 1).atStartOfDay();
+            for (Object[] row : demandeRepository.countGroupByDaySince(since)) {
+                add(fresh.demandesByDay, (LocalDate) row[0], (Long) row[1]);
+            }
+            List<Object[]> resolution = demandeRepository.sumResolutionSeconds();
+            if (!resolution.isEmpty()) {
+                fresh.closedDemandes.set(((Number) resolution.get(0)[0]).longValue());
+                fresh.resolutionSeconds.set(((Number) resolution.get(0)[1]).longValue());
+            }
+            for (Object[] row : reclamationRepository.countGroupByStatut()) {
+                add(fresh.reclamationsByStatut, (StatutReclamation) row[0], (Long) row[1]);
+            }
+            fresh.totalUsers = utilisateurRepository.count();
+            fresh.usersThisMonth = utilisateurRepository
+                    .countByCreatedDateAfter(LocalDate.now().withDayOfMonth(1).atStartOfDay());
+            fresh.reconciledAt = LocalDateTime.now();
+            counters = fresh;
+        } catch (Exception e) {
+            log.error("Dashboard statistics reconcile failed, keeping previous counters", e);
+        }
+    }
+
+    private static void apply(Counters c, DemandeState state, int sign) {
+        if (state == null) {
+            return;
+        }
+        c.totalDemandes.addAndGet(sign);
+        add(c.demandesByStatut, state.statut(), sign);
+        add(c.demandesByService, state.serviceId(), sign);
+        add(c.demandesByAssignee, state.assigneeId(), sign);
+        if (state.dateSoumission() == null) {
+            return;
+        }
+        LocalDate day = state.dateSoumission().toLocalDate();
+        if (!day.isBefore(LocalDate.now().minusDays(DAYS_KEPT - 1))) {
+            add(c.demandesByDay, day, sign);
+        }
+        if (state.dateCloture() != null) {
+            c.closedDemandes.addAndGet(sign);
+            c.resolutionSeconds.addAndGet(
+                    sign * Duration.between(state.dateSoumission(), state.dateCloture()).toSeconds());
+        }
+    }
+
+    private static <K> void add(Map<K, Long> map, K key, long delta) {
+        if (key == null || delta == 0) {
+            return;
+        }
+        map.compute(key, (k, value) -> {
+            long updated = (value == null ? 0 : value) + delta;
+            return updated == 0 ? null : updated;
+        });
+    }
+
+    // Les compteurs ne reflètent que les changements effectivement validés
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.example.aos_backend.Service;
 import java.util.Optional;
 
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -11,7 +12,7 @@ import com.example.aos_backend.user.Utilisateur;
 import lombok.RequiredArgsConstructor;
 @Service
 @RequiredArgsConstructor
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UtilisateurRepository userRepository;
     private final AdminRepository adminRepository;
@@ -33,6 +34,21 @@ public class UserDetailsServiceImpl implements UserDetailsService {
             .build();
     }
 
+    // Appelé après une connexion réussie quand le hachage stocké utilise un coût dépassé
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePasswordByEmail(user.getUsername(), newPassword);
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+            .password(newPassword)
+            .build();
+    }
+
+    // Type actuel (ADMIN, SUPPORT ou AGENT), relu à chaque vérification de token
+    public String getUserType(Integer userId) {
+        return userRepository.findUserTypeById(userId)
+            .orElseThrow(() -> new UsernameNotFoundException("User not found with ID: " + userId));
+    }
+
     public String getUserRoleType(String email) throws UsernameNotFoundException {
         Optional<Utilisateur> user = userRepository.findByEmail(email);
         if (user.isEmpty()) {
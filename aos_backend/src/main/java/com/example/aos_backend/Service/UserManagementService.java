@@ -13,6 +13,7 @@ import org.springframework.transaction.annotation.Transactional;
 import com.example.aos_backend.Controller.RegisterationRequest;
 import com.example.aos_backend.Repository.*;
 import com.example.aos_backend.dto.UserDTO;
+import com.example.aos_backend.security.VerifiedTokenCache;
 import com.example.aos_backend.user.Admin;
 import com.example.aos_backend.user.Agent;
 import com.example.aos_backend.user.Role;
@@ -30,6 +31,7 @@ public class UserManagementService {
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailService;
+    private final VerifiedTokenCache verifiedTokenCache;
 
     @Value("${application.mailing.frontend.activation-url}")
     private String activationUrl;
@@ -182,6 +184,8 @@ public class UserManagementService {
             // Vérifier que l'utilisateur existe
             Utilisateur existingUser = userRepository.findById(userId)
                     .orElseThrow(() -> new IllegalArgumentException("User not found with ID: " + userId));
+            // Email ou rôle peuvent changer : les tokens déjà vérifiés ne sont plus à jour
+            verifiedTokenCache.invalidateUser(existingUser.getEmail());
 
             // Vérifier l'unicité de l'email si modifié
             if (userDTO.getEmail() != null && !userDTO.getEmail().equals(existingUser.getEmail())) {
@@ -357,6 +361,7 @@ public class UserManagementService {
 
         user.setEnabled(enabled);
         userRepository.save(user);
+        verifiedTokenCache.invalidateUser(user.getEmail());
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,80 @@
+package com.example.aos_backend.Util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Encodage opaque des curseurs de pagination keyset.
+ *
+ * Un curseur porte la clé de recherche (horodatage ou rang, id) de la
+ * dernière ligne renvoyée ; le client le renvoie tel quel pour obtenir la
+ * page suivante.
+ */
+public class CursorUtil {
+
+    private static final char SEPARATOR = '|';
+
+    public record Cursor(LocalDateTime timestamp, long id) {
+    }
+
+    // Curseur de la recherche plein texte : rang de la dernière ligne renvoyée
+    public record RankCursor(float rank, long id) {
+    }
+
+    public static String encode(LocalDateTime timestamp, Number id) {
+        return encodeRaw(timestamp.toString(), id);
+    }
+
+    public static String encode(float rank, Number id) {
+        return encodeRaw(Float.toString(rank), id);
+    }
+
+    public static Cursor decode(String cursor) {
+        String[] parts = decodeRaw(cursor);
+        if (parts == null) {
+            return null;
+        }
+        try {
+            return new Cursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Curseur invalide: " + cursor, e);
+        }
+    }
+
+    public static RankCursor decodeRank(String cursor) {
+        String[] parts = decodeRaw(cursor);
+        if (parts == null) {
+            return null;
+        }
+        try {
+            return new RankCursor(Float.parseFloat(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Curseur invalide: " + cursor, e);
+        }
+    }
+
+    private static String encodeRaw(String key, Number id) {
+        String raw = key + SEPARATOR + id.longValue();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // null pour un curseur absent, sinon { clé, id }
+    private static String[] decodeRaw(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Curseur invalide: " + cursor, e);
+        }
+        int sep = raw.lastIndexOf(SEPARATOR);
+        if (sep <= 0) {
+            throw new IllegalArgumentException("Curseur invalide: " + cursor);
+        }
+        return new String[] { raw.substring(0, sep), raw.substring(sep + 1) };
+    }
+}
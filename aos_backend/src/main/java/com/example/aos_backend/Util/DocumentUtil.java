@@ -2,53 +2,207 @@ package com.example.aos_backend.Util;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.DataFormatException;
 import java.util.zip.Deflater;
+import java.util.zip.DeflaterInputStream;
 import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
 
+import com.example.aos_backend.user.DocumentCodec;
+
+/**
+ * Compression des documents selon leur type.
+ *
+ * Les formats déjà compressés sont stockés tels quels, les gros fichiers
+ * utilisent un niveau rapide. Les Deflater/Inflater (mémoire native) sont
+ * réutilisés via un pool borné et toujours libérés.
+ */
 public class DocumentUtil {
 
-    public static byte[] compressDocument(byte[] data) {
-        // Implémentation de la compression du document
-        Deflater deflater = new Deflater();
-        deflater.setLevel(Deflater.BEST_COMPRESSION);
+    // Au-delà de cette taille, on privilégie la vitesse au taux de compression
+    private static final int FAST_LEVEL_THRESHOLD = 1024 * 1024;
+    private static final int BUFFER_SIZE = 8 * 1024;
+    private static final int POOL_SIZE = Runtime.getRuntime().availableProcessors() * 2;
 
-        deflater.setInput(data);
-        deflater.finish();
+    // Recompresser ces formats coûte du CPU sans gain de place
+    private static final Set<String> COMPRESSED_TYPES = Set.of(
+            "application/pdf",
+            "application/zip",
+            "application/gzip",
+            "application/x-7z-compressed",
+            "application/vnd.rar",
+            "application/x-rar-compressed",
+            "image/jpeg",
+            "image/png",
+            "image/gif",
+            "image/webp");
+    private static final String OOXML_PREFIX = "application/vnd.openxmlformats-officedocument.";
 
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(data.length);
-        byte[] buffer = new byte[4 * 1024];
-        while (!deflater.finished()) {
-            int bytesRead = deflater.deflate(buffer);
-            outputStream.write(buffer, 0, bytesRead);
-        }
+    private static final BlockingQueue<Deflater> DEFLATERS = new ArrayBlockingQueue<>(POOL_SIZE);
+    private static final BlockingQueue<Inflater> INFLATERS = new ArrayBlockingQueue<>(POOL_SIZE);
 
-        try {
-            outputStream.close();
-        } catch (IOException e) {
-            e.printStackTrace();
+    public record EncodedDocument(byte[] data, DocumentCodec codec) {
+    }
+
+    public static DocumentCodec chooseCodec(String contentType) {
+        if (contentType == null) {
+            return DocumentCodec.DEFLATE;
+        }
+        String mime = contentType.split(";", 2)[0].trim().toLowerCase(Locale.ROOT);
+        if (COMPRESSED_TYPES.contains(mime) || mime.startsWith(OOXML_PREFIX)
+                || mime.startsWith("video/") || mime.startsWith("audio/")) {
+            return DocumentCodec.STORED;
         }
+        return DocumentCodec.DEFLATE;
+    }
 
-        return outputStream.toByteArray();
+    public static EncodedDocument encode(byte[] data, String contentType) {
+        if (chooseCodec(contentType) == DocumentCodec.STORED) {
+            return new EncodedDocument(data, DocumentCodec.STORED);
+        }
+        byte[] compressed = compressDocument(data, levelFor(data.length));
+        // Type mal déclaré ou contenu aléatoire : inutile de garder une version plus grosse
+        if (compressed.length >= data.length) {
+            return new EncodedDocument(data, DocumentCodec.STORED);
+        }
+        return new EncodedDocument(compressed, DocumentCodec.DEFLATE);
     }
 
-    public static byte[] decompressDocument(byte[] data) {
-        // Implémentation de la décompression du document
-        Inflater inflater = new Inflater();
-        inflater.setInput(data);
+    /**
+     * Flux encodé du contenu original ; sa fermeture rend le Deflater au pool.
+     */
+    public static InputStream encode(InputStream raw, DocumentCodec codec, long size) {
+        if (codec == DocumentCodec.STORED) {
+            return raw;
+        }
+        Deflater deflater = borrowDeflater();
+        deflater.setLevel(levelFor(size));
+        return new PooledDeflaterInputStream(raw, deflater);
+    }
 
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(data.length);
-        byte[] buffer = new byte[4 * 1024];
+    public static byte[] decode(byte[] stored, DocumentCodec codec) {
+        if (DocumentCodec.orDefault(codec) == DocumentCodec.STORED) {
+            return stored;
+        }
+        Inflater inflater = borrowInflater();
         try {
+            inflater.setInput(stored);
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream(stored.length * 2);
+            byte[] buffer = new byte[BUFFER_SIZE];
             while (!inflater.finished()) {
                 int bytesRead = inflater.inflate(buffer);
+                if (bytesRead == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalArgumentException("Contenu compressé tronqué");
+                }
+                outputStream.write(buffer, 0, bytesRead);
+            }
+            return outputStream.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Contenu compressé invalide", e);
+        } finally {
+            release(inflater);
+        }
+    }
+
+    /**
+     * Flux décodé du contenu stocké ; sa fermeture rend l'Inflater au pool.
+     */
+    public static InputStream decode(InputStream stored, DocumentCodec codec) {
+        if (DocumentCodec.orDefault(codec) == DocumentCodec.STORED) {
+            return stored;
+        }
+        return new PooledInflaterInputStream(stored, borrowInflater());
+    }
+
+    private static int levelFor(long size) {
+        return size >= FAST_LEVEL_THRESHOLD ? Deflater.BEST_SPEED : Deflater.DEFAULT_COMPRESSION;
+    }
+
+    private static byte[] compressDocument(byte[] data, int level) {
+        Deflater deflater = borrowDeflater();
+        try {
+            deflater.setLevel(level);
+            deflater.setInput(data);
+            deflater.finish();
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream(Math.max(data.length / 2, 64));
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                int bytesRead = deflater.deflate(buffer);
                 outputStream.write(buffer, 0, bytesRead);
             }
-            outputStream.close();
-        } catch (Exception e) {
-            e.printStackTrace();
+            return outputStream.toByteArray();
+        } finally {
+            release(deflater);
+        }
+    }
+
+    private static Deflater borrowDeflater() {
+        Deflater deflater = DEFLATERS.poll();
+        return deflater != null ? deflater : new Deflater();
+    }
+
+    private static void release(Deflater deflater) {
+        deflater.reset();
+        if (!DEFLATERS.offer(deflater)) {
+            deflater.end();
         }
+    }
+
+    private static Inflater borrowInflater() {
+        Inflater inflater = INFLATERS.poll();
+        return inflater != null ? inflater : new Inflater();
+    }
 
-        return outputStream.toByteArray();
+    private static void release(Inflater inflater) {
+        inflater.reset();
+        if (!INFLATERS.offer(inflater)) {
+            inflater.end();
+        }
     }
 
+    private static final class PooledDeflaterInputStream extends DeflaterInputStream {
+        private boolean released;
+
+        PooledDeflaterInputStream(InputStream in, Deflater deflater) {
+            super(in, deflater, BUFFER_SIZE);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                if (!released) {
+                    released = true;
+                    release(def);
+                }
+            }
+        }
+    }
+
+    private static final class PooledInflaterInputStream extends InflaterInputStream {
+        private boolean released;
+
+        PooledInflaterInputStream(InputStream in, Inflater inflater) {
+            super(in, inflater, BUFFER_SIZE);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                if (!released) {
+                    released = true;
+                    release(inf);
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,126 @@
+package com.example.aos_backend.Util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Roue temporelle hachée : les échéances sont rangées dans des cases
+ * indexées par leur tick modulo la taille de la roue. Planifier, remplacer
+ * ou annuler une échéance coûte O(1) ; chaque avance de l'horloge ne
+ * parcourt que les cases des ticks écoulés.
+ *
+ * Une seule échéance par clé : planifier une clé déjà présente remplace
+ * l'ancienne. Les échéances sont arrondies au tick supérieur, jamais en
+ * avance. Les méthodes sont synchronisées.
+ */
+public class HashedTimingWheel<K, V> {
+
+    private static final class Timeout<K, V> {
+        final K key;
+        final V value;
+        final long tick;
+        final int slot;
+
+        Timeout(K key, V value, long tick, int slot) {
+            this.key = key;
+            this.value = value;
+            this.tick = tick;
+            this.slot = slot;
+        }
+    }
+
+    private final long tickMs;
+    private final long startMs;
+    private final int mask;
+    private final List<Set<Timeout<K, V>>> slots;
+    private final Map<K, Timeout<K, V>> byKey = new HashMap<>();
+
+    // Prochain tick à traiter
+    private long currentTick;
+
+    /**
+     * @param wheelSize arrondi à la puissance de deux supérieure
+     */
+    public HashedTimingWheel(long tickMs, int wheelSize, long startMs) {
+        if (tickMs <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("tickMs et wheelSize doivent être positifs");
+        }
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.tickMs = tickMs;
+        this.startMs = startMs;
+        this.mask = size - 1;
+        this.slots = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            slots.add(new LinkedHashSet<>());
+        }
+    }
+
+    // Une échéance déjà passée expire à la prochaine avance
+    public synchronized void schedule(K key, V value, long deadlineMs) {
+        cancel(key);
+        long tick = Math.max(Math.floorDiv(deadlineMs - startMs + tickMs - 1, tickMs), currentTick);
+        Timeout<K, V> timeout = new Timeout<>(key, value, tick, (int) (tick & mask));
+        slots.get(timeout.slot).add(timeout);
+        byKey.put(key, timeout);
+    }
+
+    // Ne remplace pas une échéance déjà planifiée pour la clé
+    public synchronized boolean scheduleIfAbsent(K key, V value, long deadlineMs) {
+        if (byKey.containsKey(key)) {
+            return false;
+        }
+        schedule(key, value, deadlineMs);
+        return true;
+    }
+
+    public synchronized boolean cancel(K key) {
+        Timeout<K, V> timeout = byKey.remove(key);
+        if (timeout == null) {
+            return false;
+        }
+        slots.get(timeout.slot).remove(timeout);
+        return true;
+    }
+
+    // null si aucune échéance pour la clé
+    public synchronized V get(K key) {
+        Timeout<K, V> timeout = byKey.get(key);
+        return timeout != null ? timeout.value : null;
+    }
+
+    public synchronized int size() {
+        return byKey.size();
+    }
+
+    /**
+     * Avance l'horloge jusqu'à {@code nowMs} et retire les échéances
+     * atteintes. Après un long arrêt, chaque case n'est parcourue qu'une
+     * fois.
+     */
+    public synchronized List<V> advance(long nowMs) {
+        long targetTick = Math.floorDiv(nowMs - startMs, tickMs);
+        if (targetTick < currentTick) {
+            return List.of();
+        }
+        List<V> expired = new ArrayList<>();
+        long ticks = Math.min(targetTick - currentTick + 1, slots.size());
+        for (long i = 0; i < ticks; i++) {
+            Iterator<Timeout<K, V>> it = slots.get((int) ((currentTick + i) & mask)).iterator();
+            while (it.hasNext()) {
+                Timeout<K, V> timeout = it.next();
+                if (timeout.tick <= targetTick) {
+                    it.remove();
+                    byKey.remove(timeout.key);
+                    expired.add(timeout.value);
+                }
+            }
+        }
+        currentTick = targetTick + 1;
+        return expired;
+    }
+}
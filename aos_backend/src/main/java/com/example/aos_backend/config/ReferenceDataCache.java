@@ -0,0 +1,85 @@
+package com.example.aos_backend.config;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.aos_backend.user.ServiceEntity;
+import com.example.aos_backend.user.ServiceInfo;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Invalidation explicite du catalogue des services dans le cache de second
+ * niveau, et compteurs de succès / défauts par région
+ * ({@code hibernate.cache.requests}).
+ */
+@Component
+@Slf4j
+public class ReferenceDataCache {
+    private static final String[] REGIONS = {
+            SecondLevelCacheConfig.SERVICE_REGION,
+            SecondLevelCacheConfig.SERVICE_INFO_REGION,
+            SecondLevelCacheConfig.SERVICE_FEATURES_REGION,
+            SecondLevelCacheConfig.SERVICE_QUERY_REGION,
+            SecondLevelCacheConfig.ROLE_REGION,
+            SecondLevelCacheConfig.USER_ROLES_REGION };
+
+    private final Cache cache;
+
+    public ReferenceDataCache(EntityManagerFactory entityManagerFactory, MeterRegistry registry) {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.cache = sessionFactory.getCache();
+
+        Statistics statistics = sessionFactory.getStatistics();
+        for (String region : REGIONS) {
+            FunctionCounter.builder("hibernate.cache.requests", statistics, s -> hits(s, region))
+                    .tag("region", region).tag("result", "hit").register(registry);
+            FunctionCounter.builder("hibernate.cache.requests", statistics, s -> misses(s, region))
+                    .tag("region", region).tag("result", "miss").register(registry);
+        }
+    }
+
+    /**
+     * Vide le catalogue des services après le commit de la transaction en
+     * cours. Les régions sont petites : on les vide entièrement plutôt que
+     * de suivre les entrées touchées (infos, caractéristiques, requêtes).
+     */
+    public void evictServices() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictServicesNow();
+                }
+            });
+        } else {
+            evictServicesNow();
+        }
+    }
+
+    private void evictServicesNow() {
+        cache.evictEntityData(ServiceEntity.class);
+        cache.evictEntityData(ServiceInfo.class);
+        cache.evictCollectionData(ServiceInfo.class.getName() + ".features");
+        cache.evictQueryRegion(SecondLevelCacheConfig.SERVICE_QUERY_REGION);
+        log.debug("Service catalog evicted from second-level cache");
+    }
+
+    private static double hits(Statistics statistics, String region) {
+        CacheRegionStatistics stats = statistics.getCacheRegionStatistics(region);
+        return stats != null ? stats.getHitCount() : 0;
+    }
+
+    private static double misses(Statistics statistics, String region) {
+        CacheRegionStatistics stats = statistics.getCacheRegionStatistics(region);
+        return stats != null ? stats.getMissCount() : 0;
+    }
+}
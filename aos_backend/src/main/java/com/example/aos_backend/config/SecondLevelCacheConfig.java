@@ -0,0 +1,72 @@
+package com.example.aos_backend.config;
+
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+/**
+ * Cache de second niveau Hibernate pour les données de référence
+ * (services, rôles), adossé à Caffeine via JCache.
+ *
+ * Les écritures faites par Hibernate invalident elles-mêmes les régions ;
+ * la durée de vie borne l'écart quand la base est modifiée par une autre
+ * instance ou une autre application.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+    public static final String SERVICE_REGION = "reference.service";
+    public static final String SERVICE_INFO_REGION = "reference.service-info";
+    public static final String SERVICE_FEATURES_REGION = "reference.service-info.features";
+    public static final String SERVICE_QUERY_REGION = "reference.service-queries";
+    public static final String ROLE_REGION = "reference.role";
+    public static final String USER_ROLES_REGION = "utilisateur.roles";
+
+    // Régions par défaut de Hibernate pour le cache de requêtes
+    private static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(
+            @Value("${app.cache.reference.max-size:1000}") long referenceMaxSize,
+            @Value("${app.cache.reference.ttl-ms:600000}") long referenceTtlMs,
+            @Value("${app.cache.user-roles.max-size:10000}") long userRolesMaxSize) {
+        // Gestionnaire propre au contexte : deux contextes d'une même JVM ne partagent pas les régions
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("aos:second-level-cache:" + UUID.randomUUID()), provider.getDefaultClassLoader());
+        for (String region : new String[] { SERVICE_REGION, SERVICE_INFO_REGION, SERVICE_FEATURES_REGION,
+                SERVICE_QUERY_REGION, ROLE_REGION, QUERY_RESULTS_REGION }) {
+            cacheManager.createCache(region, configuration(referenceMaxSize, referenceTtlMs));
+        }
+        cacheManager.createCache(USER_ROLES_REGION, configuration(userRolesMaxSize, referenceTtlMs));
+        // Les horodatages ne doivent pas expirer avant les résultats qu'ils valident
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> configuration(long maxSize, long ttlMs) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.MILLISECONDS.toNanos(ttlMs)));
+        return configuration;
+    }
+}
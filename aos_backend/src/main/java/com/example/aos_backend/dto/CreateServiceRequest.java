@@ -3,9 +3,11 @@ package com.example.aos_backend.dto;
 
 import lombok.Data;
 import java.util.List;
+import java.util.Map;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 
 @Data
 public class CreateServiceRequest {
@@ -26,4 +28,11 @@ public class CreateServiceRequest {
 
     @NotNull(message = "Les fonctionnalités sont obligatoires")
     private List<String> features;
+
+    // Attributs propres au type (voir ServiceSchemas), facultatifs
+    private Map<String, Object> attributes;
+
+    // Délai SLA propre au service, en heures ; null = délais par défaut
+    @Positive(message = "Le délai SLA doit être positif")
+    private Integer slaHours;
 }
@@ -0,0 +1,20 @@
+package com.example.aos_backend.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPageDTO<T> {
+    private List<T> items;
+
+    // Curseur opaque à renvoyer pour obtenir la page suivante (null si dernière page)
+    private String nextCursor;
+    private boolean hasMore;
+}
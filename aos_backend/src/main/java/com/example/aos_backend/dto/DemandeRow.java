@@ -0,0 +1,41 @@
+package com.example.aos_backend.dto;
+
+import java.time.LocalDateTime;
+
+import com.example.aos_backend.user.StatutDemande;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Projection plate d'une demande (expression constructeur JPQL).
+ * Ne charge ni entité ni colonne LOB : utilisateur, service, assignataire et
+ * document réponse sont lus par jointure dans la même requête.
+ */
+@Data
+@AllArgsConstructor
+public class DemandeRow {
+    private Integer id;
+    private LocalDateTime dateSoumission;
+    private StatutDemande statut;
+    private String description;
+    private String commentaire;
+
+    private Integer utilisateurId;
+    private String utilisateurFirstname;
+    private String utilisateurLastname;
+    private String utilisateurEmail;
+
+    private Long serviceId;
+    private String serviceNom;
+
+    private Integer assignedToId;
+    private String assignedToFirstname;
+    private String assignedToLastname;
+
+    private Long reponseId;
+    private String reponseFileName;
+    private String reponseContentType;
+    private String reponseType;
+    private LocalDateTime reponseUploadedAt;
+}
@@ -0,0 +1,13 @@
+package com.example.aos_backend.dto;
+
+/**
+ * Ligne brute de la recherche plein texte (requête native) : la demande
+ * elle-même est relue ensuite par {@link DemandeRow}.
+ */
+public interface DemandeSearchHit {
+    Integer getId();
+
+    Float getRank();
+
+    String getHighlight();
+}
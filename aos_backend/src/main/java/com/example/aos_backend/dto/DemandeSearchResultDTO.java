@@ -0,0 +1,19 @@
+package com.example.aos_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class DemandeSearchResultDTO {
+    private DemandeDTO demande;
+    private float rank;
+
+    // Extrait HTML de la description et du commentaire : texte échappé,
+    // termes trouvés entre <mark> et </mark>
+    private String highlight;
+}
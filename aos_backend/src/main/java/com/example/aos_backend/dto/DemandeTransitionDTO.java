@@ -0,0 +1,23 @@
+package com.example.aos_backend.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class DemandeTransitionDTO {
+    private Long id;
+    private String type;
+    private String fromStatut;
+    private String toStatut;
+    private Integer fromAssigneeId;
+    private Integer toAssigneeId;
+    private Integer actorId;
+    private LocalDateTime occurredAt;
+}
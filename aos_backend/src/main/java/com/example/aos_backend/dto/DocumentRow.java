@@ -0,0 +1,25 @@
+package com.example.aos_backend.dto;
+
+import java.time.LocalDateTime;
+
+import com.example.aos_backend.user.DocumentCodec;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Métadonnées d'un document justificatif sans son contenu binaire.
+ */
+@Data
+@AllArgsConstructor
+public class DocumentRow {
+    private Integer demandeId;
+    private Long id;
+    private String fileName;
+    private String contentType;
+    private LocalDateTime uploadedAt;
+    private String type;
+    private Long fileSize;
+    private String blobKey;
+    private DocumentCodec codec;
+}
@@ -0,0 +1,29 @@
+package com.example.aos_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Tout ce que la réponse de connexion expose, lu en une seule requête
+ * (expression constructeur JPQL).
+ */
+@Data
+@AllArgsConstructor
+public class LoginProfile {
+    private Integer id;
+    private String email;
+    private String firstname;
+    private String lastname;
+    private String phone;
+    private String cin;
+    private String matricule;
+    private String department;
+    private boolean enabled;
+    private boolean usingTemporaryPassword;
+
+    // ADMIN, SUPPORT ou AGENT selon la table de profil
+    private String userType;
+
+    // Premier rôle (ordre alphabétique), null si aucun
+    private String roleName;
+}
@@ -0,0 +1,42 @@
+package com.example.aos_backend.dto;
+
+import java.time.LocalDateTime;
+
+import com.example.aos_backend.user.Notification;
+import com.example.aos_backend.user.NotificationType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Notification envoyée aux clients, sans l'entité utilisateur.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationDTO {
+    private Long id;
+    private String title;
+    private String message;
+    private NotificationType type;
+    private Boolean isRead;
+    private LocalDateTime createdAt;
+    private String actionUrl;
+    private Integer userId;
+
+    public static NotificationDTO of(Notification notification) {
+        return NotificationDTO.builder()
+                .id(notification.getId())
+                .title(notification.getTitle())
+                .message(notification.getMessage())
+                .type(notification.getType())
+                .isRead(notification.getIsRead())
+                .createdAt(notification.getCreatedAt())
+                .actionUrl(notification.getActionUrl())
+                .userId(notification.getUser().getId())
+                .build();
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.aos_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Envoyé par un client STOMP à la reconnexion avec l'id de la dernière
+ * notification reçue.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationReplayRequest {
+    private Long lastSeenId;
+}
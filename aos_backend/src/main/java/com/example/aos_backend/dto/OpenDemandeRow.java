@@ -0,0 +1,25 @@
+package com.example.aos_backend.dto;
+
+import java.time.LocalDateTime;
+
+import com.example.aos_backend.user.StatutDemande;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Demande ouverte telle que la lit le planificateur SLA au démarrage :
+ * statut, délai du service, et dates du dernier changement de statut et
+ * du dernier dépassement signalé (null si aucun).
+ */
+@Data
+@AllArgsConstructor
+public class OpenDemandeRow {
+    private Integer id;
+    private StatutDemande statut;
+    private Integer serviceSlaHours;
+    private Integer assignedToId;
+    private LocalDateTime dateSoumission;
+    private LocalDateTime lastStatutChange;
+    private LocalDateTime lastSlaBreach;
+}
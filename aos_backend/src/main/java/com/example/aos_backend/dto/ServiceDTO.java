@@ -24,4 +24,6 @@ public class ServiceDTO {
     private Boolean isActive;
     private List<FormField> formFields;
     private List<String> requiredDocuments;
+    private Map<String, Object> attributes;
+    private Integer slaHours;
 }
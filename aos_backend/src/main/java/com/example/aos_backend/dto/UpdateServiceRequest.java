@@ -2,6 +2,7 @@ package com.example.aos_backend.dto;
 
 import lombok.Data;
 import java.util.List;
+import java.util.Map;
 
 import jakarta.validation.constraints.*;
 
@@ -21,4 +22,11 @@ public class UpdateServiceRequest {
 
     @NotNull(message = "Les fonctionnalités sont obligatoires")
     private List<String> features;
+
+    // Attributs à modifier ; une valeur null retire l'attribut
+    private Map<String, Object> attributes;
+
+    // Délai SLA propre au service, en heures ; null = délais par défaut
+    @Positive(message = "Le délai SLA doit être positif")
+    private Integer slaHours;
 }
\ No newline at end of file
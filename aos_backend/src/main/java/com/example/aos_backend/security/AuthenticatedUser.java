@@ -0,0 +1,67 @@
+package com.example.aos_backend.security;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Utilisateur authentifié : l'id vient des claims du JWT, le type et les
+ * rôles de la dernière vérification du token en base. Immuable et
+ * sans accès à la base ; l'entité {@code Utilisateur} n'est chargée que là
+ * où une écriture en a besoin.
+ */
+public record AuthenticatedUser(Integer id, String email, String userType,
+        List<? extends GrantedAuthority> authorities) implements UserDetails {
+
+    public AuthenticatedUser {
+        authorities = List.copyOf(authorities);
+    }
+
+    public boolean hasRole(String role) {
+        String authority = "ROLE_" + role;
+        return authorities.stream().anyMatch(a -> authority.equals(a.getAuthority()));
+    }
+
+    // Type (tables admin / support) relu à la vérification du token, pas les rôles
+    public boolean isAdmin() {
+        return "ADMIN".equals(userType);
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    // L'état du compte a été vérifié avec le token (voir JwtVerifier)
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.aos_backend.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+
+/**
+ * Injecte l'{@link AuthenticatedUser} de la requête dans un paramètre de
+ * contrôleur, sans requête en base ; {@code null} pour une requête anonyme.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@AuthenticationPrincipal
+public @interface CurrentUser {
+}
@@ -2,74 +2,62 @@ package com.example.aos_backend.security;
 
 import java.io.IOException;
 
-import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import com.example.aos_backend.Service.JwtService;
-import com.example.aos_backend.Service.UserDetailsServiceImpl;
-
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 @Component
 @RequiredArgsConstructor
+@Slf4j
 public class JwtFilter extends OncePerRequestFilter {
+    // EventSource n'envoie pas d'en-tête : le flux SSE accepte aussi ce cookie
+    public static final String NOTIFICATION_STREAM_PATH = "/notifications/stream";
+    public static final String NOTIFICATION_STREAM_COOKIE = "AOS_NOTIFICATION_STREAM";
 
-    private final JwtService jwtService;
-    private final UserDetailsServiceImpl userDetailsService;
+    private final JwtVerifier jwtVerifier;
 
-    // In your JwtFilter class, add debugging
     @Override
     protected void doFilterInternal(HttpServletRequest request,
             HttpServletResponse response,
             FilterChain filterChain) throws ServletException, IOException {
         try {
-            System.out
-                    .println("JwtFilter: Processing request - " + request.getMethod() + " " + request.getRequestURI());
+            log.debug("JwtFilter: Processing request - {} {}", request.getMethod(), request.getRequestURI());
 
             // Skip JWT processing for OPTIONS requests (CORS preflight)
             if ("OPTIONS".equals(request.getMethod())) {
-                System.out.println("JwtFilter: Skipping OPTIONS request");
                 filterChain.doFilter(request, response);
                 return;
             }
 
             final String authHeader = request.getHeader("Authorization");
-            final String jwt;
-            final String userEmail;
-
-            System.out.println("JwtFilter: Authorization header present: " + (authHeader != null));
+            final String streamToken = authHeader == null ? streamToken(request) : null;
 
-            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-                System.out.println("JwtFilter: No valid Authorization header, continuing without authentication");
+            if (streamToken == null && (authHeader == null || !authHeader.startsWith("Bearer "))) {
+                log.debug("JwtFilter: No valid Authorization header, continuing without authentication");
                 filterChain.doFilter(request, response);
                 return;
             }
 
-            jwt = authHeader.substring(7);
-            userEmail = jwtService.extractUsername(jwt); // Make sure this extracts email correctly
-
-            System.out.println("Extracted email from JWT: " + userEmail); // Debug line
-
-            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-
-                if (jwtService.isTokenValid(jwt, userDetails)) {
-                    // Extract authorities from JWT token instead of database
-                    var authorities = jwtService.extractAuthorities(jwt);
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                AuthenticatedUser userDetails = streamToken != null
+                        ? jwtVerifier.verifyStreamToken(streamToken)
+                        : jwtVerifier.verify(authHeader.substring(7));
 
+                if (userDetails != null) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
-                            authorities);
+                            userDetails.getAuthorities());
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
                 }
@@ -87,4 +75,17 @@ public class JwtFilter extends OncePerRequestFilter {
                     .write("{\"error\": \"INVALID_TOKEN\", \"message\": \"Invalid authentication token.\"}");
         }
     }
-}
\ No newline at end of file
+
+    // Cookie posé par POST /notifications/stream-session, lu seulement sur le flux
+    private static String streamToken(HttpServletRequest request) {
+        if (!NOTIFICATION_STREAM_PATH.equals(request.getServletPath()) || request.getCookies() == null) {
+            return null;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (NOTIFICATION_STREAM_COOKIE.equals(cookie.getName())) {
+                return cookie.getValue();
+            }
+        }
+        return null;
+    }
+}
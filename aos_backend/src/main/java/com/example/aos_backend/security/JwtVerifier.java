@@ -0,0 +1,77 @@
+package com.example.aos_backend.security;
+
+import java.util.List;
+
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import com.example.aos_backend.Service.JwtService;
+import com.example.aos_backend.Service.UserDetailsServiceImpl;
+
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Vérification des JWT partagée entre le filtre HTTP et les connexions
+ * STOMP.
+ */
+@Component
+@RequiredArgsConstructor
+public class JwtVerifier {
+
+    private final JwtService jwtService;
+    private final UserDetailsServiceImpl userDetailsService;
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    /**
+     * Vérifie le token (une seule analyse) et charge l'utilisateur, sauf si
+     * le token est déjà en cache. Retourne null pour un compte désactivé ou
+     * verrouillé, pour un token sans id utilisateur (émis avant l'ajout
+     * des claims : une nouvelle connexion suffit) ou restreint à une
+     * ressource.
+     */
+    public AuthenticatedUser verify(String jwt) {
+        VerifiedTokenCache.VerifiedToken cached = verifiedTokenCache.get(jwt);
+        if (cached != null) {
+            return cached.principal();
+        }
+
+        Claims claims = jwtService.extractAllClaims(jwt);
+        if (jwtService.extractScope(claims) != null) {
+            return null;
+        }
+        AuthenticatedUser user = load(claims);
+        if (user != null) {
+            verifiedTokenCache.put(jwt, user, claims.getExpiration().getTime());
+        }
+        return user;
+    }
+
+    /**
+     * Vérifie le token du cookie de /notifications/stream. Pas de cache :
+     * une vérification par ouverture du flux.
+     */
+    public AuthenticatedUser verifyStreamToken(String jwt) {
+        Claims claims = jwtService.extractAllClaims(jwt);
+        if (!JwtService.NOTIFICATION_STREAM_SCOPE.equals(jwtService.extractScope(claims))) {
+            return null;
+        }
+        return load(claims);
+    }
+
+    private AuthenticatedUser load(Claims claims) {
+        Integer userId = jwtService.extractUserId(claims);
+        if (userId == null) {
+            return null;
+        }
+        UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+        if (!jwtService.isTokenValid(claims, userDetails)
+                || !userDetails.isEnabled() || !userDetails.isAccountNonLocked()) {
+            return null;
+        }
+
+        // Type et rôles actuels, pas ceux du token : une rétrogradation s'applique sans nouvelle connexion
+        return new AuthenticatedUser(userId, userDetails.getUsername(),
+                userDetailsService.getUserType(userId), List.copyOf(userDetails.getAuthorities()));
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.aos_backend.security;
+
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Contrôle d'admission des connexions : un seau à jetons par adresse IP et
+ * un par compte.
+ *
+ * Chaque tentative prend un jeton dans les deux seaux avant la
+ * vérification du mot de passe ; une connexion réussie les rend. Seuls
+ * les échecs sont donc décomptés : des collègues derrière le même NAT ne
+ * s'empêchent pas de se connecter. L'adresse est celle du client, résolue
+ * par Tomcat depuis X-Forwarded-For quand la requête vient d'un proxy de
+ * confiance (server.forward-headers-strategy).
+ *
+ * Les seaux sont répartis sur un tableau de taille fixe indexé par le
+ * hachage de la clé : la mémoire reste bornée même face à un grand nombre
+ * d'adresses, au prix de collisions rares entre clés qui partagent alors
+ * leur seau.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private static final class Bucket {
+        double tokens;
+        long refilledAtNanos;
+    }
+
+    private static final class StripedBuckets {
+        private final Bucket[] buckets;
+        private final double capacity;
+        private final double tokensPerNano;
+
+        StripedBuckets(int stripes, int capacity, int refillPerMinute) {
+            this.buckets = new Bucket[Integer.highestOneBit(Math.max(1, stripes - 1)) << 1];
+            this.capacity = capacity;
+            this.tokensPerNano = refillPerMinute / 60e9;
+            long now = System.nanoTime();
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new Bucket();
+                buckets[i].tokens = capacity;
+                buckets[i].refilledAtNanos = now;
+            }
+        }
+
+        // 0 si un jeton a été pris, sinon le nombre de secondes avant le prochain
+        long tryAcquire(String key) {
+            int hash = key.hashCode();
+            Bucket bucket = buckets[(hash ^ (hash >>> 16)) & (buckets.length - 1)];
+            synchronized (bucket) {
+                long now = System.nanoTime();
+                bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.refilledAtNanos) * tokensPerNano);
+                bucket.refilledAtNanos = now;
+                if (bucket.tokens >= 1) {
+                    bucket.tokens -= 1;
+                    return 0;
+                }
+                return Math.max(1, (long) Math.ceil((1 - bucket.tokens) / tokensPerNano / 1e9));
+            }
+        }
+
+        void release(String key) {
+            int hash = key.hashCode();
+            Bucket bucket = buckets[(hash ^ (hash >>> 16)) & (buckets.length - 1)];
+            synchronized (bucket) {
+                bucket.tokens = Math.min(capacity, bucket.tokens + 1);
+            }
+        }
+    }
+
+    private final StripedBuckets byIp;
+    private final StripedBuckets byAccount;
+
+    public LoginRateLimiter(
+            @Value("${app.auth.rate-limit.stripes:4096}") int stripes,
+            @Value("${app.auth.rate-limit.ip.capacity:20}") int ipCapacity,
+            @Value("${app.auth.rate-limit.ip.refill-per-minute:20}") int ipRefillPerMinute,
+            @Value("${app.auth.rate-limit.account.capacity:5}") int accountCapacity,
+            @Value("${app.auth.rate-limit.account.refill-per-minute:5}") int accountRefillPerMinute) {
+        this.byIp = new StripedBuckets(stripes, ipCapacity, ipRefillPerMinute);
+        this.byAccount = new StripedBuckets(stripes, accountCapacity, accountRefillPerMinute);
+    }
+
+    /**
+     * Retourne 0 si la tentative est admise, sinon le délai conseillé en
+     * secondes (en-tête Retry-After). Une tentative refusée ne coûte rien.
+     */
+    public long tryAcquire(String ip, String email) {
+        long retryAfter = byIp.tryAcquire(ipKey(ip));
+        if (retryAfter > 0) {
+            return retryAfter;
+        }
+        retryAfter = byAccount.tryAcquire(accountKey(email));
+        if (retryAfter > 0) {
+            byIp.release(ipKey(ip));
+        }
+        return retryAfter;
+    }
+
+    /**
+     * Rend les jetons d'une tentative admise qui n'a pas échoué (connexion
+     * réussie, ou mot de passe non vérifié faute de place dans le pool).
+     */
+    public void release(String ip, String email) {
+        byIp.release(ipKey(ip));
+        byAccount.release(accountKey(email));
+    }
+
+    private static String ipKey(String ip) {
+        return ip == null ? "" : ip;
+    }
+
+    private static String accountKey(String email) {
+        return email == null ? "" : email.toLowerCase(Locale.ROOT);
+    }
+}
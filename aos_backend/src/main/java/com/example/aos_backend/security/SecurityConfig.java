@@ -2,6 +2,9 @@ package com.example.aos_backend.security;
 
 import java.util.List;
 
+import jakarta.servlet.DispatcherType;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -35,9 +38,13 @@ public class SecurityConfig {
     private final UserDetailsServiceImpl userDetailsService;
     private final UtilisateurRepository utilisateurRepository;
 
+    // Un hachage de coût inférieur est refait à la connexion suivante (voir authenticationProvider)
+    @Value("${application.security.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
     @Bean
@@ -55,7 +62,10 @@ public class SecurityConfig {
         http
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .csrf(csrf -> csrf.disable())
-                .authorizeHttpRequests(req -> req.requestMatchers(
+                .authorizeHttpRequests(req -> req
+                        // Le dispatch asynchrone (téléchargements en flux) a déjà été autorisé
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        .requestMatchers(
                         "/auth/**",
                         "/api-docs/**",
                         "/v3/api-docs/**",
@@ -66,7 +76,9 @@ public class SecurityConfig {
                         "/swagger-ui/**",
                         "/webjars/**",
                         "/swagger-ui.html",
-                        "/api/v1/test/**").permitAll()
+                        "/api/v1/test/**",
+                        // Authentification portée par la trame STOMP CONNECT (StompAuthInterceptor)
+                        "/websocket/**").permitAll()
                         .requestMatchers("/api/v1/admin/**").hasAuthority("ROLE_ADMIN")
                         .anyRequest().authenticated())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -94,6 +106,7 @@ public class SecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setUserDetailsPasswordService(userDetailsService);
         return authProvider;
     }
 
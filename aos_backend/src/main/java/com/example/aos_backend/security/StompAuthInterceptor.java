@@ -0,0 +1,71 @@
+package com.example.aos_backend.security;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Authentifie les trames STOMP CONNECT avec le même JWT que les requêtes
+ * HTTP (en-tête natif {@code Authorization: Bearer ...}) et refuse les
+ * abonnements aux files des autres utilisateurs.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StompAuthInterceptor implements ChannelInterceptor {
+
+    private final JwtVerifier jwtVerifier;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null) {
+            return message;
+        }
+        if (StompCommand.CONNECT.equals(accessor.getCommand())) {
+            accessor.setUser(authenticate(accessor));
+        } else if (StompCommand.SUBSCRIBE.equals(accessor.getCommand())) {
+            checkSubscription(accessor.getDestination());
+        }
+        return message;
+    }
+
+    private StompPrincipal authenticate(StompHeaderAccessor accessor) {
+        AuthenticatedUser user = null;
+        String authHeader = accessor.getFirstNativeHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            try {
+                user = jwtVerifier.verify(authHeader.substring(7));
+            } catch (JwtException | IllegalArgumentException e) {
+                log.debug("STOMP CONNECT rejected: {}", e.getMessage());
+            }
+        } else if (accessor.getUser() instanceof Authentication handshake
+                && handshake.getPrincipal() instanceof AuthenticatedUser details) {
+            // Poignée de main HTTP déjà authentifiée par JwtFilter
+            user = details;
+        }
+        if (user == null) {
+            throw new AccessDeniedException("Connexion STOMP non authentifiée");
+        }
+        return new StompPrincipal(user.id(), user);
+    }
+
+    // Les files par session ne s'atteignent que par /user/queue/...
+    private static void checkSubscription(String destination) {
+        if (destination == null
+                || destination.startsWith("/queue/")
+                || destination.startsWith("/topic/notifications/")) {
+            throw new AccessDeniedException("Abonnement refusé: " + destination);
+        }
+    }
+}
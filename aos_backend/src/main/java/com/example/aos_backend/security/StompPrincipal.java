@@ -0,0 +1,15 @@
+package com.example.aos_backend.security;
+
+import java.security.Principal;
+
+/**
+ * Utilisateur d'une session STOMP. Le registre des sessions et les
+ * destinations {@code /user/...} sont indexés par son nom, l'id utilisateur.
+ */
+public record StompPrincipal(Integer userId, AuthenticatedUser user) implements Principal {
+
+    @Override
+    public String getName() {
+        return userId.toString();
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.aos_backend.security;
+
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Purge périodique des tokens expirés, par tranches courtes.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenReaper {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.auth.token.reaper-batch-size:1000}")
+    private int batchSize;
+
+    @Scheduled(initialDelayString = "${app.auth.token.reaper-interval-ms:3600000}",
+            fixedDelayString = "${app.auth.token.reaper-interval-ms:3600000}")
+    public void purge() {
+        LocalDateTime now = LocalDateTime.now();
+        long deleted = 0;
+        int count;
+        try {
+            do {
+                count = jdbcTemplate.update("DELETE FROM token WHERE id IN ("
+                        + "SELECT id FROM token WHERE expires_at < ? ORDER BY id LIMIT ?)", now, batchSize);
+                deleted += count;
+            } while (count >= batchSize);
+        } catch (RuntimeException e) {
+            log.error("Token reaper stopped after {} rows", deleted, e);
+            return;
+        }
+        if (deleted > 0) {
+            log.info("Token reaper: {} expired tokens deleted", deleted);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.aos_backend.security;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Enregistrement différé des tokens émis à la connexion.
+ *
+ * Les JWT sont sans état : la table {@code token} n'est qu'un journal. Les
+ * lignes sont donc accumulées en mémoire et insérées par lots JDBC sur un
+ * thread dédié, pour qu'une vague de connexions ne coûte pas une insertion
+ * synchrone par requête. Un arrêt brutal perd au plus la dernière fenêtre.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRegistry {
+
+    private record PendingToken(String token, Integer userId, LocalDateTime createdAt, LocalDateTime expiresAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Queue<PendingToken> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "token-registry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${app.auth.token.flush-window-ms:200}")
+    private long flushWindowMs;
+
+    @Value("${app.auth.token.batch-size:200}")
+    private int batchSize;
+
+    public void register(String token, Integer userId, LocalDateTime createdAt, LocalDateTime expiresAt) {
+        pending.add(new PendingToken(token, userId, createdAt, expiresAt));
+        if (flushScheduled.compareAndSet(false, true)) {
+            executor.schedule(this::flush, flushWindowMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+        List<PendingToken> batch;
+        while (!(batch = drain()).isEmpty()) {
+            try {
+                insert(batch);
+            } catch (RuntimeException e) {
+                log.warn("Issued-token batch of {} failed, inserting one by one", batch.size(), e);
+                insertOneByOne(batch);
+            }
+        }
+    }
+
+    // Deux connexions du même utilisateur dans la même seconde produisent le même JWT
+    private List<PendingToken> drain() {
+        Map<String, PendingToken> batch = new LinkedHashMap<>();
+        PendingToken token;
+        while (batch.size() < batchSize && (token = pending.poll()) != null) {
+            batch.putIfAbsent(token.token(), token);
+        }
+        return new ArrayList<>(batch.values());
+    }
+
+    private void insertOneByOne(List<PendingToken> batch) {
+        for (PendingToken token : batch) {
+            try {
+                insert(List.of(token));
+            } catch (DuplicateKeyException e) {
+                log.debug("Issued token already recorded for user {}", token.userId());
+            } catch (RuntimeException e) {
+                log.error("Dropping issued-token row for user {}", token.userId(), e);
+            }
+        }
+    }
+
+    private void insert(List<PendingToken> batch) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO token (token, created_at, expires_at, utilisateur_id) VALUES (?, ?, ?, ?)",
+                batch, batch.size(), (ps, token) -> {
+                    ps.setString(1, token.token());
+                    ps.setTimestamp(2, Timestamp.valueOf(token.createdAt()));
+                    ps.setTimestamp(3, Timestamp.valueOf(token.expiresAt()));
+                    ps.setInt(4, token.userId());
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        flush();
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.aos_backend.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tokens déjà vérifiés, indexés par leur empreinte SHA-256, pour éviter de
+ * revérifier la signature et de recharger l'utilisateur à chaque requête.
+ *
+ * Une entrée vit au plus {@code ttl} et jamais au-delà de l'expiration du
+ * token. Les entrées d'un utilisateur sont retirées dès que son compte ou
+ * ses rôles changent (voir {@link #invalidateUser}).
+ */
+@Component
+@Slf4j
+public class VerifiedTokenCache {
+
+    public record VerifiedToken(AuthenticatedUser principal, long expiresAtMillis) {
+    }
+
+    private final Map<String, VerifiedToken> entries = new ConcurrentHashMap<>();
+
+    @Value("${application.security.jwt.verified-cache.ttl:60000}")
+    private long ttlMillis;
+
+    @Value("${application.security.jwt.verified-cache.max-size:10000}")
+    private int maxSize;
+
+    public VerifiedToken get(String token) {
+        String key = hash(token);
+        VerifiedToken entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis() <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    public void put(String token, AuthenticatedUser principal, long tokenExpiresAtMillis) {
+        if (entries.size() >= maxSize) {
+            evictExpired();
+            if (entries.size() >= maxSize) {
+                // Cache plein de tokens encore valides : on vérifiera sans cache
+                return;
+            }
+        }
+        long expiresAt = Math.min(System.currentTimeMillis() + ttlMillis, tokenExpiresAtMillis);
+        entries.put(hash(token), new VerifiedToken(principal, expiresAt));
+    }
+
+    /**
+     * Retire les tokens d'un utilisateur. Dans une transaction, le retrait
+     * est refait après le commit pour qu'une requête concurrente ne remette
+     * pas en cache l'état précédent.
+     */
+    public void invalidateUser(String email) {
+        if (email == null) {
+            return;
+        }
+        removeUser(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    removeUser(email);
+                }
+            });
+        }
+    }
+
+    private void removeUser(String email) {
+        entries.values().removeIf(entry -> email.equals(entry.principal().getUsername()));
+    }
+
+    private void evictExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAtMillis() <= now);
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.aos_backend.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.Blob;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.aos_backend.Util.DocumentUtil;
+import com.example.aos_backend.user.DocumentCodec;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Déplace les contenus encore stockés en ligne (colonne {@code content})
+ * vers le BlobStore, par lots courts et une transaction par document.
+ * Activé par {@code app.storage.blob.migration.enabled}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BlobMigrationJob {
+    private static final List<String> TABLES = List.of("document_justificatif", "document_public");
+
+    private final BlobStore blobStore;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.storage.blob.migration.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.storage.blob.migration.batch-size:50}")
+    private int batchSize;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            migrateAll();
+        }
+    }
+
+    public void migrateAll() {
+        for (String table : TABLES) {
+            long migrated = 0;
+            long failed = 0;
+            // Keyset sur l'id : une ligne en échec reste en place sans bloquer les suivantes
+            long afterId = 0;
+            List<Long> ids;
+            while (!(ids = nextBatch(table, afterId)).isEmpty()) {
+                for (Long id : ids) {
+                    if (migrate(table, id)) {
+                        migrated++;
+                    } else {
+                        failed++;
+                    }
+                }
+                afterId = ids.get(ids.size() - 1);
+            }
+            if (failed > 0) {
+                log.warn("Blob migration: {} rows moved out of {}, {} failed (retried on next run)",
+                        migrated, table, failed);
+            } else {
+                log.info("Blob migration: {} rows moved out of {}", migrated, table);
+            }
+        }
+    }
+
+    private List<Long> nextBatch(String table, long afterId) {
+        return jdbcTemplate.queryForList("SELECT id FROM " + table
+                + " WHERE blob_key IS NULL AND content IS NOT NULL AND id > ? ORDER BY id LIMIT ?",
+                Long.class, afterId, batchSize);
+    }
+
+    private boolean migrate(String table, Long id) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> migrateRow(table, id));
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Blob migration failed for {} id {}, skipped", table, id, e);
+            return false;
+        }
+    }
+
+    private void migrateRow(String table, Long id) {
+        AtomicReference<BlobStore.BlobRef> ref = new AtomicReference<>();
+        jdbcTemplate.query("SELECT content FROM " + table + " WHERE id = ?", rs -> {
+            Blob blob = rs.getBlob(1);
+            try (InputStream in = blob.getBinaryStream()) {
+                ref.set(blobStore.put(in));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                blob.free();
+            }
+        }, id);
+
+        BlobStore.BlobRef blob = ref.get();
+        if (blob == null) {
+            return;
+        }
+        // Sur PostgreSQL, l'ancien large object devient orphelin : vacuumlo le récupère
+        if ("document_justificatif".equals(table)) {
+            jdbcTemplate.update("UPDATE document_justificatif SET blob_key = ?, blob_size = ?, content = NULL, "
+                    + "file_size = COALESCE(file_size, ?) WHERE id = ?",
+                    blob.key(), blob.size(), inflatedSize(blob.key()), id);
+        } else {
+            jdbcTemplate.update("UPDATE " + table + " SET blob_key = ?, blob_size = ?, content = NULL WHERE id = ?",
+                    blob.key(), blob.size(), id);
+        }
+    }
+
+    // Taille d'origine, nécessaire aux téléchargements par plage
+    private long inflatedSize(String key) {
+        long[] size = new long[1];
+        try {
+            // Les documents historiques sont tous en DEFLATE
+            blobStore.read(key, in -> {
+                try (InputStream inflated = DocumentUtil.decode(in, DocumentCodec.DEFLATE)) {
+                    byte[] buffer = new byte[8 * 1024];
+                    int read;
+                    while ((read = inflated.read(buffer)) != -1) {
+                        size[0] += read;
+                    }
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return size[0];
+    }
+}
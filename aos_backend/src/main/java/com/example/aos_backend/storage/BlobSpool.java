@@ -0,0 +1,54 @@
+package com.example.aos_backend.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Copie un flux dans un fichier temporaire en calculant son SHA-256,
+ * sans jamais tenir le contenu entier en mémoire.
+ */
+class BlobSpool {
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    final Path file;
+    final String sha256;
+    final long size;
+
+    private BlobSpool(Path file, String sha256, long size) {
+        this.file = file;
+        this.sha256 = sha256;
+        this.size = size;
+    }
+
+    static BlobSpool spool(InputStream content, Path directory) throws IOException {
+        Path tmp = directory != null
+                ? Files.createTempFile(directory, "blob-", ".tmp")
+                : Files.createTempFile("blob-", ".tmp");
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            long size = 0;
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(tmp), digest)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                    size += read;
+                }
+            }
+            return new BlobSpool(tmp, HexFormat.of().formatHex(digest.digest()), size);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        } catch (NoSuchAlgorithmException e) {
+            Files.deleteIfExists(tmp);
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.aos_backend.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Stockage adressé par contenu des fichiers (documents justificatifs et
+ * publics). La clé d'un blob est l'empreinte SHA-256 hexadécimale des octets
+ * stockés : deux envois identiques partagent le même blob.
+ */
+public interface BlobStore {
+
+    /**
+     * Stocke le flux et renvoie sa clé. Si un blob de même contenu existe
+     * déjà, il est réutilisé.
+     */
+    BlobRef put(InputStream content) throws IOException;
+
+    /**
+     * Ouvre le blob et le passe au consommateur. Le flux n'est valide que
+     * pendant l'appel (les large objects PostgreSQL exigent une transaction).
+     */
+    void read(String key, BlobConsumer consumer) throws IOException;
+
+    boolean exists(String key);
+
+    record BlobRef(String key, long size) {
+    }
+
+    @FunctionalInterface
+    interface BlobConsumer {
+        void accept(InputStream in) throws IOException;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.aos_backend.storage;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.sql.Blob;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Blobs stockés dans la table {@code blob_content}. Conserve le
+ * comportement historique (contenu en base) tout en sortant les octets des
+ * tables métier.
+ *
+ * Un blob est validé dans sa propre transaction, comme un fichier écrit
+ * par FileSystemBlobStore : il survit à l'annulation de l'envoi qui l'a
+ * créé, ce qui est sans conséquence pour un contenu adressé par son hash.
+ */
+@Component
+@ConditionalOnProperty(name = "app.storage.blob.type", havingValue = "database", matchIfMissing = true)
+public class DatabaseBlobStore implements BlobStore {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate insertTemplate;
+
+    public DatabaseBlobStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Hors de la transaction de l'appelant : un doublon n'annule qu'elle-même (et son large object)
+        this.insertTemplate = new TransactionTemplate(transactionManager);
+        insertTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public BlobRef put(InputStream content) throws IOException {
+        BlobSpool spool = BlobSpool.spool(content, null);
+        try {
+            if (!exists(spool.sha256)) {
+                try (InputStream in = Files.newInputStream(spool.file)) {
+                    insertTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                            "INSERT INTO blob_content (blob_key, content, size, created_at) VALUES (?, ?, ?, ?)",
+                            ps -> {
+                                ps.setString(1, spool.sha256);
+                                ps.setBlob(2, in, spool.size);
+                                ps.setLong(3, spool.size);
+                                ps.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
+                            }));
+                } catch (DuplicateKeyException e) {
+                    // Envoi concurrent du même contenu, validé avant nous : le blob existe déjà
+                }
+            }
+            return new BlobRef(spool.sha256, spool.size);
+        } finally {
+            Files.deleteIfExists(spool.file);
+        }
+    }
+
+    @Override
+    public void read(String key, BlobConsumer consumer) throws IOException {
+        try {
+            Boolean found = transactionTemplate.execute(status -> jdbcTemplate.query(
+                    "SELECT content FROM blob_content WHERE blob_key = ?",
+                    rs -> {
+                        if (!rs.next()) {
+                            return false;
+                        }
+                        Blob blob = rs.getBlob(1);
+                        try (InputStream in = blob.getBinaryStream()) {
+                            consumer.accept(in);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        } finally {
+                            blob.free();
+                        }
+                        return true;
+                    },
+                    key));
+            if (!Boolean.TRUE.equals(found)) {
+                throw new FileNotFoundException("Blob introuvable: " + key);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM blob_content WHERE blob_key = ?", Integer.class, key);
+        return count != null && count > 0;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.aos_backend.storage;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Blobs stockés sur disque local, répartis sur deux niveaux de
+ * sous-répertoires : {@code root/ab/cd/abcd...}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.storage.blob.type", havingValue = "filesystem")
+@Slf4j
+public class FileSystemBlobStore implements BlobStore {
+
+    private final Path root;
+    private final Path tmpDir;
+
+    public FileSystemBlobStore(@Value("${app.storage.blob.root}") String root) throws IOException {
+        this.root = Paths.get(root).toAbsolutePath();
+        this.tmpDir = this.root.resolve("tmp");
+        Files.createDirectories(tmpDir);
+        log.info("File system blob store at {}", this.root);
+    }
+
+    @Override
+    public BlobRef put(InputStream content) throws IOException {
+        BlobSpool spool = BlobSpool.spool(content, tmpDir);
+        try {
+            Path target = pathOf(spool.sha256);
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                // Le renommage atomique rend l'écriture visible d'un seul coup
+                Files.move(spool.file, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return new BlobRef(spool.sha256, spool.size);
+        } finally {
+            Files.deleteIfExists(spool.file);
+        }
+    }
+
+    @Override
+    public void read(String key, BlobConsumer consumer) throws IOException {
+        Path path = pathOf(key);
+        if (!Files.exists(path)) {
+            throw new FileNotFoundException("Blob introuvable: " + key);
+        }
+        try (InputStream in = Files.newInputStream(path)) {
+            consumer.accept(in);
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.exists(pathOf(key));
+    }
+
+    private Path pathOf(String key) {
+        if (key == null || !key.matches("[0-9a-f]{64}")) {
+            throw new IllegalArgumentException("Clé de blob invalide: " + key);
+        }
+        return root.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.aos_backend.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.aos_backend.Util.DocumentUtil;
+import com.example.aos_backend.user.DocumentCodec;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Traitement des pièces jointes en trois étapes :
+ * copie dans un fichier temporaire sur le thread de la requête, compression
+ * et écriture dans le BlobStore sur un pool borné, puis enregistrement des
+ * métadonnées dans une transaction courte. Un fichier que la compression ne
+ * réduit pas est stocké tel quel (STORED).
+ *
+ * Quand la file du pool est pleine, {@link #process} lève une
+ * {@link RejectedExecutionException} que le contrôleur traduit en 503.
+ */
+@Component
+@Slf4j
+public class UploadPipeline {
+
+    public record StoredFile(String fileName, String contentType, String blobKey, long blobSize, long fileSize,
+            DocumentCodec codec) {
+    }
+
+    private record SpooledFile(String fileName, String contentType, Path path, long size) {
+    }
+
+    private final BlobStore blobStore;
+    private final ThreadPoolExecutor executor;
+    private final Timer spoolTimer;
+    private final Timer encodeTimer;
+    private final Timer commitTimer;
+    private final Counter rejected;
+
+    public UploadPipeline(BlobStore blobStore, MeterRegistry registry,
+            @Value("${app.upload.pipeline.threads:2}") int threads,
+            @Value("${app.upload.pipeline.queue-capacity:16}") int queueCapacity) {
+        this.blobStore = blobStore;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new Thread(runnable, "upload-" + threadCount.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("upload.pipeline.queue.depth", executor, e -> e.getQueue().size()).register(registry);
+        Gauge.builder("upload.pipeline.active", executor, ThreadPoolExecutor::getActiveCount).register(registry);
+        this.spoolTimer = stageTimer(registry, "spool");
+        this.encodeTimer = stageTimer(registry, "encode");
+        this.commitTimer = stageTimer(registry, "commit");
+        this.rejected = Counter.builder("upload.pipeline.rejected").register(registry);
+    }
+
+    private static Timer stageTimer(MeterRegistry registry, String stage) {
+        return Timer.builder("upload.pipeline.stage").tag("stage", stage).register(registry);
+    }
+
+    /**
+     * Copie les fichiers sur disque puis planifie leur stockage ; {@code commit}
+     * reçoit les fichiers stockés et s'exécute sur le thread du pool.
+     */
+    public <T> CompletableFuture<T> process(List<MultipartFile> files, Function<List<StoredFile>, T> commit)
+            throws IOException {
+        if (files == null || files.isEmpty()) {
+            return CompletableFuture.completedFuture(commitTimer.record(() -> commit.apply(List.of())));
+        }
+
+        Timer.Sample spooling = Timer.start();
+        List<SpooledFile> spooled = spool(files);
+        spooling.stop(spoolTimer);
+        try {
+            return CompletableFuture.supplyAsync(() -> encodeAll(spooled), executor)
+                    .thenApply(stored -> commitTimer.record(() -> commit.apply(stored)));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            deleteAll(spooled);
+            throw e;
+        }
+    }
+
+    private List<SpooledFile> spool(List<MultipartFile> files) throws IOException {
+        List<SpooledFile> spooled = new ArrayList<>(files.size());
+        try {
+            for (MultipartFile file : files) {
+                Path path = Files.createTempFile("upload-", ".tmp");
+                spooled.add(new SpooledFile(file.getOriginalFilename(), file.getContentType(), path, file.getSize()));
+                file.transferTo(path);
+            }
+            return spooled;
+        } catch (IOException | RuntimeException e) {
+            deleteAll(spooled);
+            throw e;
+        }
+    }
+
+    private List<StoredFile> encodeAll(List<SpooledFile> spooled) {
+        try {
+            List<StoredFile> stored = new ArrayList<>(spooled.size());
+            for (SpooledFile file : spooled) {
+                stored.add(encodeTimer.record(() -> encode(file)));
+            }
+            return stored;
+        } finally {
+            deleteAll(spooled);
+        }
+    }
+
+    private StoredFile encode(SpooledFile file) {
+        DocumentCodec codec = DocumentUtil.chooseCodec(file.contentType());
+        Path content = file.path();
+        Path compressed = null;
+        try {
+            if (codec == DocumentCodec.DEFLATE) {
+                compressed = Files.createTempFile("upload-", ".deflate");
+                try (InputStream in = DocumentUtil.encode(Files.newInputStream(file.path()), codec, file.size())) {
+                    Files.copy(in, compressed, StandardCopyOption.REPLACE_EXISTING);
+                }
+                // Type mal déclaré ou contenu déjà compressé : on garde l'original, sans coût au téléchargement
+                if (Files.size(compressed) < file.size()) {
+                    content = compressed;
+                } else {
+                    codec = DocumentCodec.STORED;
+                }
+            }
+            try (InputStream in = Files.newInputStream(content)) {
+                BlobStore.BlobRef blob = blobStore.put(in);
+                return new StoredFile(file.fileName(), file.contentType(), blob.key(), blob.size(), file.size(),
+                        codec);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Erreur lors du stockage du fichier: " + file.fileName(), e);
+        } finally {
+            deleteQuietly(compressed);
+        }
+    }
+
+    private void deleteAll(List<SpooledFile> spooled) {
+        for (SpooledFile file : spooled) {
+            deleteQuietly(file.path());
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete upload spool {}", path, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
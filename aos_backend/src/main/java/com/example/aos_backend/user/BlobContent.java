@@ -0,0 +1,32 @@
+package com.example.aos_backend.user;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Table du stockage de blobs en base (DatabaseBlobStore). Lue et écrite en
+ * JDBC direct pour pouvoir diffuser le contenu en flux.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "blob_content")
+public class BlobContent {
+    @Id
+    @Column(name = "blob_key", length = 64)
+    private String blobKey;
+
+    @Lob
+    @Column(name = "content")
+    private byte[] content;
+
+    @Column(name = "size")
+    private Long size;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
@@ -21,15 +21,19 @@ import org.hibernate.annotations.SQLRestriction;
 @NoArgsConstructor
 @Entity
 @EntityListeners(AuditingEntityListener.class)
-@Table(name = "demande")
+@Table(name = "demande", indexes = {
+        @Index(name = "idx_demande_date_soumission_id", columnList = "date_soumission DESC, id DESC"),
+        @Index(name = "idx_demande_statut", columnList = "statut")
+})
 @ToString(exclude = { "documentsJustificatifs", "documentReponse" })
 public class Demande {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
 
+    // Clé de la pagination keyset : jamais nulle
     @CreatedDate
-    @Column(name = "date_soumission", updatable = false)
+    @Column(name = "date_soumission", nullable = false, updatable = false)
     private LocalDateTime dateSoumission;
 
     @Enumerated(EnumType.STRING)
@@ -68,4 +72,12 @@ public class Demande {
     @Column(name = "updated_date", insertable = false)
     private LocalDateTime lastModifiedDate;
 
+    // Passage à ACCEPTEE ou REFUSEE, sert au calcul du temps de traitement
+    @Column(name = "date_cloture")
+    private LocalDateTime dateCloture;
+
+    // Dernier dépassement SLA signalé, écrit seulement par DemandeRepository.claimSlaBreach
+    @Column(name = "sla_breach_notified_at", insertable = false, updatable = false)
+    private LocalDateTime slaBreachNotifiedAt;
+
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.example.aos_backend.user;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Journal des changements d'une demande, en ajout seul : une ligne par
+ * changement de statut ou d'assignataire, écrite dans la transaction du
+ * changement, et une ligne par dépassement de délai signalé.
+ *
+ * Pas de clé étrangère vers la demande : l'historique survit à sa
+ * suppression.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Immutable
+@Table(name = "demande_transition", indexes = {
+        @Index(name = "idx_demande_transition_demande", columnList = "demande_id, occurred_at")
+})
+public class DemandeTransition {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "demande_transition_seq")
+    @SequenceGenerator(name = "demande_transition_seq", sequenceName = "demande_transition_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "demande_id", nullable = false)
+    private Integer demandeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false)
+    private TypeTransition type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_statut")
+    private StatutDemande fromStatut;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "to_statut")
+    private StatutDemande toStatut;
+
+    @Column(name = "from_assignee_id")
+    private Integer fromAssigneeId;
+
+    @Column(name = "to_assignee_id")
+    private Integer toAssigneeId;
+
+    // null pour un événement du système (dépassement de délai)
+    @Column(name = "actor_id")
+    private Integer actorId;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,16 @@
+package com.example.aos_backend.user;
+
+/**
+ * Encodage du contenu stocké d'un document. Une valeur nulle en base
+ * correspond aux documents historiques, tous compressés en DEFLATE.
+ */
+public enum DocumentCodec {
+    // Contenu stocké tel quel (formats déjà compressés)
+    STORED,
+    // Flux zlib produit par java.util.zip.Deflater
+    DEFLATE;
+
+    public static DocumentCodec orDefault(DocumentCodec codec) {
+        return codec != null ? codec : DEFLATE;
+    }
+}
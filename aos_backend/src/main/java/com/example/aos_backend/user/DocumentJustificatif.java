@@ -25,10 +25,28 @@ public class DocumentJustificatif {
     @Column(name = "file_name")
     private String fileName;
 
+    // Contenu historique stocké en ligne ; vidé par BlobMigrationJob
     @Lob
     @Column(name = "content")
     private byte[] content;
 
+    // Empreinte SHA-256 du contenu stocké, clé dans le BlobStore
+    @Column(name = "blob_key", length = 64)
+    private String blobKey;
+
+    // Taille stockée (après compression)
+    @Column(name = "blob_size")
+    private Long blobSize;
+
+    // Encodage du contenu stocké (null : DEFLATE, documents historiques)
+    @Enumerated(EnumType.STRING)
+    @Column(name = "codec", length = 16)
+    private DocumentCodec codec;
+
+    // Taille du fichier original (avant compression)
+    @Column(name = "file_size")
+    private Long fileSize;
+
     @Column(name = "uploaded_at")
     private LocalDateTime uploadedAt;
 
@@ -36,11 +36,25 @@ public class DocumentPublic {
     @Column(name = "file_name")
     private String fileName;
 
+    // Contenu historique stocké en ligne ; vidé par BlobMigrationJob
     @Lob
     @Column(name = "content")
     @JsonIgnore
     private byte[] content;
 
+    // Empreinte SHA-256 du contenu stocké, clé dans le BlobStore
+    @Column(name = "blob_key", length = 64)
+    private String blobKey;
+
+    // Taille stockée (après compression)
+    @Column(name = "blob_size")
+    private Long blobSize;
+
+    // Encodage du contenu stocké (null : DEFLATE, documents historiques)
+    @Enumerated(EnumType.STRING)
+    @Column(name = "codec", length = 16)
+    private DocumentCodec codec;
+
     @Column(name = "type")
     private String type;
 
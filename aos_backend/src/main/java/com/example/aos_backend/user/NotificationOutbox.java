@@ -0,0 +1,47 @@
+package com.example.aos_backend.user;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Notification en attente de publication, écrite dans la transaction
+ * métier. Le relais (NotificationDispatcher) la transforme en
+ * {@link Notification} puis supprime la ligne.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "notification_outbox")
+public class NotificationOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_outbox_seq")
+    @SequenceGenerator(name = "notification_outbox_seq", sequenceName = "notification_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+
+    @Column(name = "title", nullable = false)
+    private String title;
+
+    @Column(name = "message", nullable = false)
+    private String message;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false)
+    private NotificationType type;
+
+    @Column(name = "action_url")
+    private String actionUrl;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Relais échoués ; la ligne est écartée au-delà de app.notifications.outbox.max-attempts
+    @Column(name = "attempts", nullable = false, columnDefinition = "integer default 0")
+    private int attempts;
+}
@@ -3,10 +3,14 @@ package com.example.aos_backend.user;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
+import com.example.aos_backend.config.SecondLevelCacheConfig;
+
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -17,6 +21,8 @@ import lombok.*;
 @NoArgsConstructor
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.ROLE_REGION)
 @EntityListeners(AuditingEntityListener.class)
 @Table(name = "role")
 public class Role {
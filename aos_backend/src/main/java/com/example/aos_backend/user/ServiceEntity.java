@@ -1,6 +1,16 @@
 
 package com.example.aos_backend.user;
 
+import java.util.HashMap;
+import java.util.Map;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import com.example.aos_backend.config.SecondLevelCacheConfig;
+
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -8,9 +18,10 @@ import lombok.*;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Inheritance(strategy = InheritanceType.JOINED)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.SERVICE_REGION)
 @Table(name = "service")
-public abstract class ServiceEntity {
+public class ServiceEntity {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -27,4 +38,13 @@ public abstract class ServiceEntity {
     
     @Column(name = "is_active")
     private Boolean isActive = true;
+
+    // Attributs propres au type (JSONB), lus et écrits via ServiceSchemas
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "attributes")
+    private Map<String, Object> attributes = new HashMap<>();
+
+    // Délai (heures) dans chaque statut ouvert avant alerte ; null = délais par défaut
+    @Column(name = "sla_hours")
+    private Integer slaHours;
 }
\ No newline at end of file
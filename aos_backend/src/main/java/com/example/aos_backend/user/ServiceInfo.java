@@ -1,5 +1,10 @@
 package com.example.aos_backend.user;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.example.aos_backend.config.SecondLevelCacheConfig;
+
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -10,6 +15,8 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.SERVICE_INFO_REGION)
 @Table(name = "service_info")
 public class ServiceInfo {
     @Id
@@ -22,6 +29,7 @@ public class ServiceInfo {
     private String description;
 
     @ElementCollection(fetch = FetchType.EAGER)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.SERVICE_FEATURES_REGION)
     @CollectionTable(name = "service_features", joinColumns = @JoinColumn(name = "service_info_id"), uniqueConstraints = @UniqueConstraint(columnNames = {
             "service_info_id", "feature" }))
     @Column(name = "feature")
@@ -1,5 +1,10 @@
 package com.example.aos_backend.user;
 
 public enum StatutDemande {
-    EN_ATTENTE, EN_COURS, ACCEPTEE, REFUSEE
+    EN_ATTENTE, EN_COURS, ACCEPTEE, REFUSEE;
+
+    // Une demande acceptée ou refusée est traitée
+    public boolean isClosed() {
+        return this == ACCEPTEE || this == REFUSEE;
+    }
 }
@@ -12,13 +12,16 @@ import lombok.*;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "token")
+@Table(name = "token", indexes = {
+        @Index(name = "idx_token_expires_at", columnList = "expires_at")
+})
 public class Token {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
 
-    @Column(unique = true)
+    // Le JWT porte l'id et le type de l'utilisateur : plus de 255 caractères
+    @Column(unique = true, length = 1024)
     private String token;
 
     @Column(name = "created_at", nullable = false, updatable = false)
@@ -0,0 +1,6 @@
+package com.example.aos_backend.user;
+
+public enum TypeTransition {
+    // Changement de statut, changement d'assignataire, délai SLA dépassé dans le statut courant
+    STATUT, ASSIGNATION, SLA_DEPASSE
+}
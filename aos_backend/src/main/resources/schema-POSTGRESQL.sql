@@ -0,0 +1,160 @@
+-- Exécuté après la génération du schéma par Hibernate (defer-datasource-initialization)
+
+-- Reconstruction des compteurs de notifications non lues
+CREATE INDEX IF NOT EXISTS idx_notification_user_unread ON notification (user_id) WHERE is_read = false;
+
+-- Purge des notifications lues (NotificationRetentionJob)
+CREATE INDEX IF NOT EXISTS idx_notification_read_created ON notification (created_at) WHERE is_read = true;
+
+-- date_soumission est la clé de la pagination keyset (/demandes) : obligatoire,
+-- l'heure d'insertion à défaut pour une demande créée par l'application agents
+UPDATE demande SET date_soumission = COALESCE(updated_date, date_cloture, now()) WHERE date_soumission IS NULL;
+ALTER TABLE demande ALTER COLUMN date_soumission SET DEFAULT now();
+ALTER TABLE demande ALTER COLUMN date_soumission SET NOT NULL;
+
+-- Filtres sur les attributs propres au type de service (attributes @> '{...}')
+CREATE INDEX IF NOT EXISTS idx_service_attributes ON service USING gin (attributes jsonb_path_ops);
+
+-- Reprise des anciennes tables par type de service (héritage JOINED) dans
+-- service.attributes, puis suppression de ces tables. Sans effet une fois
+-- la reprise faite.
+DO $$
+BEGIN
+    IF to_regclass('transport_service') IS NOT NULL THEN
+        UPDATE service s SET attributes = jsonb_strip_nulls(jsonb_build_object(
+                'trajet', t.trajet, 'pointDepart', t.point_depart,
+                'pointArrivee', t.point_arrivee, 'frequence', t.frequence))
+            FROM transport_service t WHERE t.id = s.id AND s.attributes IS NULL;
+        DROP TABLE transport_service;
+    END IF;
+    IF to_regclass('sante_sociale_service') IS NOT NULL THEN
+        UPDATE service s SET attributes = jsonb_strip_nulls(jsonb_build_object(
+                'typeSoin', t.type_soin, 'montant', t.montant))
+            FROM sante_sociale_service t WHERE t.id = s.id AND s.attributes IS NULL;
+        DROP TABLE sante_sociale_service;
+    END IF;
+    IF to_regclass('logement_service') IS NOT NULL THEN
+        UPDATE service s SET attributes = jsonb_strip_nulls(jsonb_build_object(
+                'typeLogement', t.type_logement, 'localisationSouhaitee', t.localisation_souhaitee,
+                'montantParticipation', t.montant_participation))
+            FROM logement_service t WHERE t.id = s.id AND s.attributes IS NULL;
+        DROP TABLE logement_service;
+    END IF;
+    IF to_regclass('colonie_vacance_service') IS NOT NULL THEN
+        UPDATE service s SET attributes = jsonb_strip_nulls(jsonb_build_object(
+                'nombreEnfants', t.nombre_enfants, 'lieuSouhaite', t.lieu_souhaite, 'periode', t.periode))
+            FROM colonie_vacance_service t WHERE t.id = s.id AND s.attributes IS NULL;
+        DROP TABLE colonie_vacance_service;
+    END IF;
+    IF to_regclass('appui_scolaire_service') IS NOT NULL THEN
+        UPDATE service s SET attributes = jsonb_strip_nulls(jsonb_build_object(
+                'niveau', t.niveau, 'typeAide', t.type_aide, 'montantDemande', t.montant_demande))
+            FROM appui_scolaire_service t WHERE t.id = s.id AND s.attributes IS NULL;
+        DROP TABLE appui_scolaire_service;
+    END IF;
+    IF to_regclass('activite_culturelle_sportive_service') IS NOT NULL THEN
+        UPDATE service s SET attributes = jsonb_strip_nulls(jsonb_build_object(
+                'typeActivite', t.type_activite, 'nomActivite', t.nom_activite,
+                'dateActivite', t.date_activite))
+            FROM activite_culturelle_sportive_service t WHERE t.id = s.id AND s.attributes IS NULL;
+        DROP TABLE activite_culturelle_sportive_service;
+    END IF;
+    UPDATE service SET attributes = '{}'::jsonb WHERE attributes IS NULL;
+END
+$$;
+
+-- Recherche plein texte sur les demandes (/demandes/search).
+-- Configuration française insensible aux accents.
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_ts_config WHERE cfgname = 'fr_unaccent') THEN
+        CREATE TEXT SEARCH CONFIGURATION fr_unaccent (COPY = french);
+        ALTER TEXT SEARCH CONFIGURATION fr_unaccent
+            ALTER MAPPING FOR hword, hword_part, word WITH unaccent, french_stem;
+    END IF;
+END
+$$;
+
+-- Document indexé : service (A), demandeur et description (B), commentaire (C)
+CREATE OR REPLACE FUNCTION demande_search_document(description text, commentaire text,
+        firstname text, lastname text, email text, service_nom text)
+RETURNS tsvector LANGUAGE sql STABLE AS $$
+    SELECT setweight(to_tsvector('fr_unaccent', coalesce(service_nom, '')), 'A')
+        || setweight(to_tsvector('fr_unaccent', concat_ws(' ', firstname, lastname, email)), 'B')
+        || setweight(to_tsvector('fr_unaccent', coalesce(description, '')), 'B')
+        || setweight(to_tsvector('fr_unaccent', coalesce(commentaire, '')), 'C')
+$$;
+
+-- Colonne hors mapping JPA, tenue à jour par les déclencheurs ci-dessous
+ALTER TABLE demande ADD COLUMN IF NOT EXISTS search_vector tsvector;
+
+CREATE INDEX IF NOT EXISTS idx_demande_search_vector ON demande USING gin (search_vector);
+
+CREATE OR REPLACE FUNCTION demande_search_vector_refresh() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    SELECT demande_search_document(NEW.description, NEW.commentaire, u.firstname, u.lastname, u.email, s.nom)
+        INTO NEW.search_vector
+        FROM utilisateur u, service s
+        WHERE u.id = NEW.utilisateur_id AND s.id = NEW.service_id;
+    RETURN NEW;
+END
+$$;
+
+DROP TRIGGER IF EXISTS demande_search_vector ON demande;
+CREATE TRIGGER demande_search_vector
+    BEFORE INSERT OR UPDATE OF description, commentaire, utilisateur_id, service_id ON demande
+    FOR EACH ROW EXECUTE FUNCTION demande_search_vector_refresh();
+
+-- Un demandeur ou un service renommé réindexe ses demandes
+CREATE OR REPLACE FUNCTION demande_search_vector_cascade() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_TABLE_NAME = 'utilisateur' THEN
+        UPDATE demande d
+            SET search_vector = demande_search_document(d.description, d.commentaire,
+                    NEW.firstname, NEW.lastname, NEW.email, s.nom)
+            FROM service s
+            WHERE d.utilisateur_id = NEW.id AND s.id = d.service_id;
+    ELSE
+        UPDATE demande d
+            SET search_vector = demande_search_document(d.description, d.commentaire,
+                    u.firstname, u.lastname, u.email, NEW.nom)
+            FROM utilisateur u
+            WHERE d.service_id = NEW.id AND u.id = d.utilisateur_id;
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+DROP TRIGGER IF EXISTS demande_search_vector_utilisateur ON utilisateur;
+CREATE TRIGGER demande_search_vector_utilisateur
+    AFTER UPDATE OF firstname, lastname, email ON utilisateur
+    FOR EACH ROW WHEN (OLD.firstname IS DISTINCT FROM NEW.firstname
+        OR OLD.lastname IS DISTINCT FROM NEW.lastname OR OLD.email IS DISTINCT FROM NEW.email)
+    EXECUTE FUNCTION demande_search_vector_cascade();
+
+DROP TRIGGER IF EXISTS demande_search_vector_service ON service;
+CREATE TRIGGER demande_search_vector_service
+    AFTER UPDATE OF nom ON service
+    FOR EACH ROW WHEN (OLD.nom IS DISTINCT FROM NEW.nom)
+    EXECUTE FUNCTION demande_search_vector_cascade();
+
+-- Rattrapage des demandes antérieures à la colonne
+UPDATE demande d
+    SET search_vector = demande_search_document(d.description, d.commentaire,
+            u.firstname, u.lastname, u.email, s.nom)
+    FROM utilisateur u, service s
+    WHERE d.search_vector IS NULL AND u.id = d.utilisateur_id AND s.id = d.service_id;
+
+-- Journal des transitions des demandes : ajout seul
+CREATE OR REPLACE FUNCTION demande_transition_append_only() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    RAISE EXCEPTION 'demande_transition est en ajout seul (% refusé)', TG_OP;
+END
+$$;
+
+DROP TRIGGER IF EXISTS demande_transition_append_only ON demande_transition;
+CREATE TRIGGER demande_transition_append_only
+    BEFORE UPDATE OR DELETE ON demande_transition
+    FOR EACH ROW EXECUTE FUNCTION demande_transition_append_only();
@@ -0,0 +1,110 @@
+package com.example.aos_backend.Controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.User;
+
+import com.example.aos_backend.DemandeFixtures;
+import com.example.aos_backend.PostgresTestSupport;
+import com.example.aos_backend.Service.JwtService;
+
+/**
+ * Latence de /demandes/count, /demandes/count/pending et /demandes/recent
+ * pendant que la table demande grossit de 1 000 à 300 000 lignes. Affiche
+ * médiane et p95 par palier ; /recent (index date_soumission, LIMIT) doit
+ * rester plat.
+ *
+ * Lancé seulement avec -Dloadtests=true (quelques minutes) :
+ * mvn test -Dtest=DemandeCountLoadTest -Dloadtests=true [-Dtest.postgres.url=...]
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@EnabledIfSystemProperty(named = "loadtests", matches = "true")
+class DemandeCountLoadTest extends PostgresTestSupport {
+
+    private static final int[] TABLE_SIZES = { 1_000, 10_000, 100_000, 300_000 };
+    private static final String[] ENDPOINTS = { "/demandes/count", "/demandes/count/pending", "/demandes/recent" };
+    private static final int WARMUP_CALLS = 30;
+    private static final int MEASURED_CALLS = 200;
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Test
+    void latencyStaysFlatAsTableGrows() {
+        DemandeFixtures fixtures = new DemandeFixtures(jdbc);
+        fixtures.clearDemandes();
+        int adminId = fixtures.user("Admin", "ADMIN");
+        int userId = fixtures.user("Demandeur");
+        long serviceId = fixtures.service("Transport");
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(jwtService.generateToken(
+                User.withUsername(fixtures.email(adminId)).password("x").roles("ADMIN").build(), adminId, "ADMIN"));
+        HttpEntity<Void> request = new HttpEntity<>(headers);
+
+        Map<Integer, Map<String, double[]>> results = new LinkedHashMap<>();
+        int rows = 0;
+        for (int size : TABLE_SIZES) {
+            fixtures.demandes(size - rows, userId, serviceId);
+            rows = size;
+            jdbc.execute("ANALYZE demande");
+
+            Map<String, double[]> bySize = new LinkedHashMap<>();
+            for (String endpoint : ENDPOINTS) {
+                bySize.put(endpoint, measure(endpoint, request));
+            }
+            results.put(size, bySize);
+        }
+
+        System.out.printf("%n%-26s%s%n", "médiane / p95 (ms)", Arrays.toString(TABLE_SIZES));
+        for (String endpoint : ENDPOINTS) {
+            StringBuilder line = new StringBuilder(String.format("%-26s", endpoint));
+            results.values().forEach(bySize -> line.append(
+                    String.format("%8.2f /%6.2f", bySize.get(endpoint)[0], bySize.get(endpoint)[1])));
+            System.out.println(line);
+        }
+
+        double smallest = results.get(TABLE_SIZES[0]).get("/demandes/recent")[0];
+        double largest = results.get(TABLE_SIZES[TABLE_SIZES.length - 1]).get("/demandes/recent")[0];
+        assertThat(largest).isLessThan(smallest * 3 + 2);
+    }
+
+    // { médiane, p95 } en millisecondes
+    private double[] measure(String endpoint, HttpEntity<Void> request) {
+        for (int i = 0; i < WARMUP_CALLS; i++) {
+            call(endpoint, request);
+        }
+        double[] millis = new double[MEASURED_CALLS];
+        for (int i = 0; i < MEASURED_CALLS; i++) {
+            long start = System.nanoTime();
+            call(endpoint, request);
+            millis[i] = (System.nanoTime() - start) / 1_000_000.0;
+        }
+        Arrays.sort(millis);
+        return new double[] { millis[MEASURED_CALLS / 2], millis[MEASURED_CALLS * 95 / 100] };
+    }
+
+    private void call(String endpoint, HttpEntity<Void> request) {
+        assertThat(rest.exchange(endpoint, HttpMethod.GET, request, String.class).getStatusCode())
+                .isEqualTo(HttpStatus.OK);
+    }
+}
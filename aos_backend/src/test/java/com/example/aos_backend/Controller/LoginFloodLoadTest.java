@@ -0,0 +1,151 @@
+package com.example.aos_backend.Controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.User;
+
+import com.example.aos_backend.DemandeFixtures;
+import com.example.aos_backend.PostgresTestSupport;
+import com.example.aos_backend.Service.JwtService;
+
+/**
+ * Rafale de connexions (mots de passe faux, comptes inconnus) plus
+ * nombreuse que les threads Tomcat, pendant qu'un client mesure
+ * /demandes/recent. Les quotas par IP et par compte sont levés pour que la
+ * rafale atteigne le pool de hachage : elle doit se traduire en 401 et 503,
+ * sans 500, et la médiane de la requête mesurée doit rester proche de sa
+ * valeur au repos. Les connexions restées en file au-delà du délai du
+ * client sont comptées à part.
+ *
+ * Lancé seulement avec -Dloadtests=true (une trentaine de secondes) :
+ * mvn test -Dtest=LoginFloodLoadTest -Dloadtests=true [-Dtest.postgres.url=...]
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.auth.rate-limit.ip.capacity=1000000",
+        "app.auth.rate-limit.ip.refill-per-minute=1000000",
+        "app.auth.rate-limit.account.capacity=1000000",
+        "app.auth.rate-limit.account.refill-per-minute=1000000" })
+@EnabledIfSystemProperty(named = "loadtests", matches = "true")
+class LoginFloodLoadTest extends PostgresTestSupport {
+
+    // Au-delà des 200 threads Tomcat par défaut
+    private static final int FLOOD_CLIENTS = 300;
+    private static final Duration FLOOD_DURATION = Duration.ofSeconds(20);
+    private static final int MEASURED_CALLS = 200;
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${server.servlet.context-path:}")
+    private String contextPath;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Test
+    void otherEndpointsStayResponsiveDuringLoginFlood() throws Exception {
+        DemandeFixtures fixtures = new DemandeFixtures(jdbc);
+        fixtures.clearDemandes();
+        int adminId = fixtures.user("Admin", "ADMIN");
+        fixtures.demandes(1_000, fixtures.user("Demandeur"), fixtures.service("Transport"));
+        HttpRequest recent = HttpRequest.newBuilder(uri("/demandes/recent"))
+                .header("Authorization", "Bearer " + jwtService.generateToken(
+                        User.withUsername(fixtures.email(adminId)).password("x").roles("ADMIN").build(), adminId,
+                        "ADMIN"))
+                .timeout(Duration.ofSeconds(30))
+                .build();
+
+        double[] idle = measure(recent);
+
+        Map<Integer, AtomicInteger> loginStatuses = new ConcurrentHashMap<>();
+        AtomicInteger loginTimeouts = new AtomicInteger();
+        AtomicInteger loginErrors = new AtomicInteger();
+        long deadline = System.nanoTime() + FLOOD_DURATION.toNanos();
+        ExecutorService flood = Executors.newFixedThreadPool(FLOOD_CLIENTS);
+        for (int i = 0; i < FLOOD_CLIENTS; i++) {
+            flood.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    try {
+                        int status = client.send(login(), HttpResponse.BodyHandlers.discarding()).statusCode();
+                        loginStatuses.computeIfAbsent(status, s -> new AtomicInteger()).incrementAndGet();
+                    } catch (HttpTimeoutException e) {
+                        // Acceptée mais restée en file plus longtemps que le client n'attend
+                        loginTimeouts.incrementAndGet();
+                    } catch (Exception e) {
+                        loginErrors.incrementAndGet();
+                    }
+                }
+            });
+        }
+        // Laisse la rafale saturer le pool avant de mesurer
+        Thread.sleep(2_000);
+        double[] flooded = measure(recent);
+        flood.shutdown();
+        assertThat(flood.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+
+        System.out.printf("%n/demandes/recent médiane / p95 (ms) : au repos %.2f / %.2f, pendant la rafale %.2f / %.2f%n",
+                idle[0], idle[1], flooded[0], flooded[1]);
+        System.out.printf("Connexions par statut : %s, délais client dépassés : %d, erreurs : %d%n", loginStatuses,
+                loginTimeouts.get(), loginErrors.get());
+
+        assertThat(loginStatuses).containsKey(401).containsKey(503).doesNotContainKey(500);
+        assertThat(loginErrors.get()).isZero();
+        // Le p95 dépend surtout des cœurs partagés avec les clients de la rafale ; la médiane reste proche
+        assertThat(flooded[0]).isLessThan(idle[0] * 3 + 50);
+    }
+
+    // { médiane, p95 } en millisecondes
+    private double[] measure(HttpRequest request) throws Exception {
+        double[] millis = new double[MEASURED_CALLS];
+        for (int i = 0; i < MEASURED_CALLS; i++) {
+            long start = System.nanoTime();
+            assertThat(client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode()).isEqualTo(200);
+            millis[i] = (System.nanoTime() - start) / 1_000_000.0;
+        }
+        Arrays.sort(millis);
+        return new double[] { millis[MEASURED_CALLS / 2], millis[MEASURED_CALLS * 95 / 100] };
+    }
+
+    private HttpRequest login() {
+        String body = "{\"email\":\"" + UUID.randomUUID() + "@flood.ma\",\"password\":\"wrong\"}";
+        return HttpRequest.newBuilder(uri("/auth/login"))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + contextPath + path);
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.aos_backend.Controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.example.aos_backend.DemandeFixtures;
+import com.example.aos_backend.PostgresTestSupport;
+
+/**
+ * Quotas de connexion par le serveur HTTP : l'IP est celle du client
+ * transmise par le proxy (X-Forwarded-For depuis la boucle locale, proxy
+ * de confiance), et seuls les échecs sont décomptés. Chaque test prend
+ * ses propres adresses.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.auth.rate-limit.ip.capacity=3",
+        "app.auth.rate-limit.ip.refill-per-minute=1",
+        "app.auth.rate-limit.account.capacity=2",
+        "app.auth.rate-limit.account.refill-per-minute=1" })
+class LoginRateLimitTest extends PostgresTestSupport {
+
+    private static final String PASSWORD = "Secret-123";
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${server.servlet.context-path:}")
+    private String contextPath;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void successfulLoginsAreNotCharged() throws Exception {
+        String email = account();
+        for (int i = 0; i < 6; i++) {
+            assertThat(login("198.51.100.1", email, PASSWORD).statusCode()).isEqualTo(200);
+        }
+    }
+
+    @Test
+    void failedLoginsExhaustTheAccount() throws Exception {
+        String email = account();
+        assertThat(login("198.51.100.2", email, "wrong").statusCode()).isEqualTo(401);
+        assertThat(login("198.51.100.3", email, "wrong").statusCode()).isEqualTo(401);
+
+        HttpResponse<String> limited = login("198.51.100.4", email, PASSWORD);
+        assertThat(limited.statusCode()).isEqualTo(429);
+        assertThat(limited.headers().firstValue("Retry-After")).isPresent();
+    }
+
+    @Test
+    void clientsBehindTheProxyHaveTheirOwnBucket() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertThat(login("203.0.113.1", UUID.randomUUID() + "@flood.ma", "wrong").statusCode()).isEqualTo(401);
+        }
+        assertThat(login("203.0.113.1", UUID.randomUUID() + "@flood.ma", "wrong").statusCode()).isEqualTo(429);
+
+        // Autre client derrière le même proxy : pas concerné
+        assertThat(login("203.0.113.2", UUID.randomUUID() + "@flood.ma", "wrong").statusCode()).isEqualTo(401);
+        // Le proxy ajoute l'adresse réelle après celle, falsifiable, envoyée par le client
+        assertThat(login("203.0.113.2, 203.0.113.1", UUID.randomUUID() + "@flood.ma", "wrong").statusCode())
+                .isEqualTo(429);
+    }
+
+    private String account() {
+        DemandeFixtures fixtures = new DemandeFixtures(jdbc);
+        int userId = fixtures.user("Ana", "SUPPORT");
+        jdbc.update("UPDATE utilisateur SET password = ? WHERE id = ?", passwordEncoder.encode(PASSWORD), userId);
+        return fixtures.email(userId);
+    }
+
+    private HttpResponse<String> login(String forwardedFor, String email, String password) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + contextPath + "/auth/login"))
+                .header("Content-Type", "application/json")
+                .header("X-Forwarded-For", forwardedFor)
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
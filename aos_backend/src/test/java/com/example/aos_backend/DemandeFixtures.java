@@ -0,0 +1,81 @@
+package com.example.aos_backend;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Jeu de données des tests sur PostgreSQL, écrit en JDBC. Les utilisateurs
+ * et services reçoivent des valeurs uniques : ils ne sont jamais supprimés,
+ * ce qui garde cohérent le cache de second niveau entre les tests.
+ */
+public class DemandeFixtures {
+
+    private final JdbcTemplate jdbc;
+
+    public DemandeFixtures(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    // Vide les demandes, leurs documents et leur journal (TRUNCATE ne déclenche pas l'ajout seul)
+    public void clearDemandes() {
+        jdbc.execute("TRUNCATE demande_transition, document_justificatif, demande CASCADE");
+    }
+
+    public int user(String firstname) {
+        String unique = UUID.randomUUID().toString();
+        return jdbc.queryForObject("INSERT INTO utilisateur (firstname, lastname, email, password, account_locked, "
+                + "enabled, using_temporary_password, created_date, matricule, cin) "
+                + "VALUES (?, 'Test', ?, 'x', false, true, false, now(), ?, ?) RETURNING id",
+                Integer.class, firstname, unique + "@test.ma", "M-" + unique, "C-" + unique);
+    }
+
+    // Utilisateur avec le rôle et sa table de type (admin, support ou agent)
+    public int user(String firstname, String role) {
+        int id = user(firstname);
+        jdbc.update("INSERT INTO role (name, created_date) VALUES (?, now()) ON CONFLICT (name) DO NOTHING", role);
+        jdbc.update("INSERT INTO utilisateur_roles (utilisateur_id, role_id) SELECT ?, id FROM role WHERE name = ?",
+                id, role);
+        jdbc.update("INSERT INTO " + role.toLowerCase() + " (id) VALUES (?)", id);
+        return id;
+    }
+
+    public String email(int userId) {
+        return jdbc.queryForObject("SELECT email FROM utilisateur WHERE id = ?", String.class, userId);
+    }
+
+    public long service(String nom) {
+        Long infoId = jdbc.queryForObject("INSERT INTO service_info (icon, title, description) "
+                + "VALUES ('icon', ?, 'test') RETURNING id", Long.class, nom + " " + UUID.randomUUID());
+        return jdbc.queryForObject("INSERT INTO service (nom, type, service_info_id, is_active, attributes) "
+                + "VALUES (?, 'TransportService', ?, true, '{}'::jsonb) RETURNING id", Long.class, nom, infoId);
+    }
+
+    public int demande(LocalDateTime dateSoumission, String statut, int userId, long serviceId, Integer assigneeId) {
+        return jdbc.queryForObject("INSERT INTO demande (date_soumission, statut, description, utilisateur_id, "
+                + "service_id, assigned_to_id) VALUES (?, ?, 'demande de test', ?, ?, ?) RETURNING id",
+                Integer.class, Timestamp.valueOf(dateSoumission), statut, userId, serviceId, assigneeId);
+    }
+
+    // Demandes en masse, une par minute avant maintenant, statuts en rotation
+    public void demandes(int count, int userId, long serviceId) {
+        jdbc.update("INSERT INTO demande (date_soumission, statut, description, utilisateur_id, service_id) "
+                + "SELECT now() - make_interval(mins => g), "
+                + "(ARRAY['EN_ATTENTE', 'EN_COURS', 'ACCEPTEE', 'REFUSEE'])[1 + g % 4], 'demande de test', ?, ? "
+                + "FROM generate_series(1, ?) g", userId, serviceId, count);
+    }
+
+    // Document avec contenu historique en ligne (grand objet)
+    public long document(int demandeId, String type, byte[] content) {
+        Long id = jdbc.queryForObject("INSERT INTO document_justificatif (content_type, file_name, content, "
+                + "uploaded_at, type, demande_id, file_size) VALUES ('application/pdf', 'piece.pdf', "
+                + "lo_from_bytea(0, ?), now(), ?, ?, ?) RETURNING id",
+                Long.class, content, type, demandeId, (long) content.length);
+        if ("reponse".equals(type)) {
+            jdbc.update("UPDATE demande SET document_reponse_id = ? WHERE id = ?", id, demandeId);
+        }
+        return id;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.aos_backend.Notification;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.aos_backend.AosBackendApplication;
+import com.example.aos_backend.PostgresTestSupport;
+
+/**
+ * Relais LISTEN/NOTIFY entre deux instances du backend sur la même base :
+ * un message envoyé sur l'instance A est livré aux sessions de l'instance
+ * B, et une instance ne relivre pas ses propres messages.
+ *
+ * Les deux contextes tournent dans la JVM du test ; B ne touche pas au
+ * schéma créé par A.
+ */
+class NotificationClusterTest extends PostgresTestSupport {
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    private static final BlockingQueue<NotificationBroadcaster.UserMessage> userMessagesA = new LinkedBlockingQueue<>();
+    private static final BlockingQueue<NotificationBroadcaster.UserMessage> userMessagesB = new LinkedBlockingQueue<>();
+    private static final BlockingQueue<NotificationBroadcaster.RemoteMessage> remoteMessagesB =
+            new LinkedBlockingQueue<>();
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = start();
+        nodeB = start("--spring.jpa.hibernate.ddl-auto=none", "--spring.sql.init.mode=never");
+        broadcaster(nodeA).onUserMessage(userMessagesA::add);
+        broadcaster(nodeB).onUserMessage(userMessagesB::add);
+        broadcaster(nodeB).onRemoteMessage(remoteMessagesB::add);
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        // A a créé le schéma (create-drop) : il s'arrête en dernier
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (nodeA != null) {
+            nodeA.close();
+        }
+    }
+
+    @Test
+    void userMessageSentOnOneNodeIsDeliveredOnTheOther() throws InterruptedException {
+        broadcaster(nodeA).sendToUser(42, NotificationDispatcher.NOTIFICATIONS_DESTINATION,
+                Map.of("title", "Demande acceptée"));
+
+        NotificationBroadcaster.UserMessage received = userMessagesB.poll(10, TimeUnit.SECONDS);
+        assertThat(received).isNotNull();
+        assertThat(received.userId()).isEqualTo(42);
+        assertThat(received.destination()).isEqualTo(NotificationDispatcher.NOTIFICATIONS_DESTINATION);
+        assertThat(received.payload().toString()).contains("Demande acceptée");
+
+        // Livré une fois sur A (localement), jamais relivré par son propre NOTIFY
+        assertThat(userMessagesA.poll(10, TimeUnit.SECONDS)).isNotNull();
+        assertThat(userMessagesA.poll(1, TimeUnit.SECONDS)).isNull();
+    }
+
+    @Test
+    void burstIsRelayedInOrder() throws InterruptedException {
+        remoteMessagesB.clear();
+        for (int i = 0; i < 200; i++) {
+            broadcaster(nodeA).send("/topic/demandes", Map.of("seq", i));
+        }
+
+        List<Integer> sequence = new ArrayList<>();
+        while (sequence.size() < 200) {
+            NotificationBroadcaster.RemoteMessage message = remoteMessagesB.poll(10, TimeUnit.SECONDS);
+            assertThat(message).as("messages reçus : %d", sequence.size()).isNotNull();
+            if ("/topic/demandes".equals(message.destination())) {
+                sequence.add(message.payload().path("seq").asInt());
+            }
+        }
+        assertThat(sequence).isSorted().doesNotHaveDuplicates();
+    }
+
+    private static ConfigurableApplicationContext start(String... args) {
+        List<String> arguments = new ArrayList<>();
+        applicationProperties().forEach((name, value) -> arguments.add("--" + name + "=" + value));
+        arguments.add("--app.notifications.cluster.enabled=true");
+        arguments.addAll(List.of(args));
+        return new SpringApplicationBuilder(AosBackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(arguments.toArray(String[]::new));
+    }
+
+    private static NotificationBroadcaster broadcaster(ConfigurableApplicationContext context) {
+        return context.getBean(NotificationBroadcaster.class);
+    }
+}
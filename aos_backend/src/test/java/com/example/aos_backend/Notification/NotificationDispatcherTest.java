@@ -0,0 +1,98 @@
+package com.example.aos_backend.Notification;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.aos_backend.DemandeFixtures;
+import com.example.aos_backend.PostgresTestSupport;
+
+/**
+ * Relais de l'outbox en échec : une ligne impossible à relayer ne bloque
+ * pas les autres et n'est écartée qu'après max-attempts passages ; une
+ * outbox inaccessible n'écarte rien.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "app.notifications.outbox.max-attempts=3",
+        // Passages déclenchés par le test uniquement
+        "app.notifications.outbox.sweep-interval-ms=3600000" })
+class NotificationDispatcherTest extends PostgresTestSupport {
+
+    private static final int MISSING_USER = Integer.MAX_VALUE;
+
+    @Autowired
+    private NotificationDispatcher dispatcher;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private int userId;
+
+    @BeforeEach
+    void seed() {
+        jdbc.execute("TRUNCATE notification_outbox");
+        userId = new DemandeFixtures(jdbc).user("Ana");
+    }
+
+    @Test
+    void failingRowIsRetriedThenDroppedWithoutBlockingOthers() {
+        long poison = outbox(MISSING_USER, "Destinataire supprimé");
+        outbox(userId, "Demande acceptée");
+
+        flush();
+
+        assertThat(notificationTitles(userId)).containsExactly("Demande acceptée");
+        assertThat(attempts()).containsExactly(List.of(poison, 1));
+
+        flush();
+        assertThat(attempts()).containsExactly(List.of(poison, 2));
+
+        flush();
+        assertThat(attempts()).isEmpty();
+    }
+
+    @Test
+    void unavailableOutboxDropsNothing() {
+        outbox(userId, "Demande refusée");
+        jdbc.execute("ALTER TABLE notification_outbox RENAME TO notification_outbox_off");
+        try {
+            flush();
+        } finally {
+            jdbc.execute("ALTER TABLE notification_outbox_off RENAME TO notification_outbox");
+        }
+        assertThat(notificationTitles(userId)).isEmpty();
+        assertThat(jdbc.queryForObject("SELECT attempts FROM notification_outbox", Integer.class)).isZero();
+
+        flush();
+
+        assertThat(notificationTitles(userId)).containsExactly("Demande refusée");
+        assertThat(attempts()).isEmpty();
+    }
+
+    private void flush() {
+        ReflectionTestUtils.invokeMethod(dispatcher, "flush");
+    }
+
+    private long outbox(int recipient, String title) {
+        return jdbc.queryForObject("INSERT INTO notification_outbox (id, user_id, title, message, type, created_at, "
+                + "attempts) VALUES (nextval('notification_outbox_seq'), ?, ?, 'test', 'info', now(), 0) RETURNING id",
+                Long.class, recipient, title);
+    }
+
+    private List<String> notificationTitles(int recipient) {
+        return jdbc.queryForList("SELECT title FROM notification WHERE user_id = ? ORDER BY id", String.class,
+                recipient);
+    }
+
+    private List<List<Object>> attempts() {
+        return jdbc.query("SELECT id, attempts FROM notification_outbox ORDER BY id",
+                (rs, row) -> List.of(rs.getLong("id"), rs.getInt("attempts")));
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.aos_backend.Notification;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.User;
+
+import com.example.aos_backend.DemandeFixtures;
+import com.example.aos_backend.PostgresTestSupport;
+import com.example.aos_backend.Service.JwtService;
+import com.example.aos_backend.dto.NotificationDTO;
+import com.example.aos_backend.security.JwtFilter;
+import com.example.aos_backend.user.NotificationType;
+
+/**
+ * Flux SSE lus en HTTP brut : chaque onglet reçoit exactement les mêmes
+ * trames, et un client qui se comporte comme EventSource (cookie seul,
+ * Last-Event-ID à la reconnexion) reprend là où il s'était arrêté.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties =
+        "app.notifications.sse.heartbeat-ms=3600000")
+class NotificationStreamTest extends PostgresTestSupport {
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${server.servlet.context-path:}")
+    private String contextPath;
+
+    @Autowired
+    private NotificationBroadcaster broadcaster;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final List<InputStream> streams = new ArrayList<>();
+
+    private int userId;
+    private String token;
+
+    @BeforeEach
+    void seed() {
+        DemandeFixtures fixtures = new DemandeFixtures(jdbc);
+        userId = fixtures.user("Ana");
+        token = jwtService.generateToken(User.withUsername(fixtures.email(userId)).password("x").roles("USER")
+                .build(), userId, "USER");
+    }
+
+    @AfterEach
+    void close() throws Exception {
+        for (InputStream stream : streams) {
+            stream.close();
+        }
+    }
+
+    @Test
+    void everyTabGetsTheSameFrames() throws Exception {
+        List<BlockingQueue<String>> tabs = List.of(open("Authorization", "Bearer " + token),
+                open("Authorization", "Bearer " + token), open("Authorization", "Bearer " + token));
+
+        broadcaster.sendToUser(userId, NotificationDispatcher.NOTIFICATIONS_DESTINATION, NotificationDTO.builder()
+                .id(42L).title("Demande acceptée").type(NotificationType.success).userId(userId).build());
+        for (BlockingQueue<String> tab : tabs) {
+            assertThat(next(tab)).isEqualTo("event:notification");
+            assertThat(next(tab)).isEqualTo("id:42");
+            assertThat(next(tab)).startsWith("data:{").contains("\"title\":\"Demande acceptée\"");
+            assertThat(next(tab)).isEmpty();
+        }
+
+        // Envoyé après coup : le pool d'envoi ne garantit pas l'ordre entre deux messages
+        broadcaster.sendToUser(userId, UnreadNotificationCounter.COUNT_DESTINATION, 3);
+        for (BlockingQueue<String> tab : tabs) {
+            assertThat(List.of(next(tab), next(tab), next(tab))).containsExactly("event:count", "data:3", "");
+        }
+    }
+
+    @Test
+    void eventSourceResumesWithCookieAndLastEventId() throws Exception {
+        long first = notification("Demande reçue");
+        HttpResponse<Void> session = client.send(request("/notifications/stream-session")
+                .header("Authorization", "Bearer " + token)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build(), HttpResponse.BodyHandlers.discarding());
+        assertThat(session.statusCode()).isEqualTo(204);
+        String setCookie = session.headers().firstValue("Set-Cookie").orElseThrow();
+        assertThat(setCookie).startsWith(JwtFilter.NOTIFICATION_STREAM_COOKIE + "=")
+                .contains("HttpOnly", "SameSite=Strict", "Path=" + contextPath + "/notifications/stream");
+        String cookie = setCookie.substring(0, setCookie.indexOf(';'));
+
+        // Première connexion : cookie seul, comme EventSource
+        open("Cookie", cookie);
+
+        // Reconnexion automatique après une coupure : le navigateur renvoie l'id du dernier événement reçu
+        long missed = notification("Demande acceptée");
+        BlockingQueue<String> resumed = openStream("Cookie", cookie, "Last-Event-ID", Long.toString(first));
+        assertThat(next(resumed)).isEqualTo("event:notification");
+        assertThat(next(resumed)).isEqualTo("id:" + missed);
+        assertThat(next(resumed)).contains("\"title\":\"Demande acceptée\"");
+    }
+
+    @Test
+    void streamTokenOpensNothingElse() throws Exception {
+        String streamToken = jwtService.generateStreamToken(new DemandeFixtures(jdbc).email(userId), userId,
+                new Date(System.currentTimeMillis() + 60_000));
+
+        assertThat(status(request("/notifications/unread-count")
+                .header("Authorization", "Bearer " + streamToken))).isEqualTo(403);
+        assertThat(status(request("/notifications/unread-count")
+                .header("Cookie", JwtFilter.NOTIFICATION_STREAM_COOKIE + "=" + streamToken))).isEqualTo(403);
+        // Un token de connexion en cookie n'ouvre pas le flux
+        assertThat(status(request("/notifications/stream")
+                .header("Cookie", JwtFilter.NOTIFICATION_STREAM_COOKIE + "=" + token))).isEqualTo(403);
+    }
+
+    // Ouvre le flux et consomme le commentaire de connexion
+    private BlockingQueue<String> open(String... headers) throws Exception {
+        BlockingQueue<String> lines = openStream(headers);
+        assertThat(next(lines)).isEqualTo(":connected");
+        assertThat(next(lines)).isEmpty();
+        return lines;
+    }
+
+    private BlockingQueue<String> openStream(String... headers) throws Exception {
+        HttpResponse<InputStream> response = client.send(request("/notifications/stream")
+                .header("Accept", "text/event-stream")
+                .headers(headers)
+                .build(), HttpResponse.BodyHandlers.ofInputStream());
+        assertThat(response.statusCode()).isEqualTo(200);
+        streams.add(response.body());
+        BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+        Thread reader = new Thread(() -> {
+            try (BufferedReader in = new BufferedReader(
+                    new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+                in.lines().forEach(lines::add);
+            } catch (Exception e) {
+                // Flux fermé à la fin du test
+            }
+        });
+        reader.setDaemon(true);
+        reader.start();
+        return lines;
+    }
+
+    private int status(HttpRequest.Builder request) throws Exception {
+        return client.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + contextPath + path));
+    }
+
+    private long notification(String title) {
+        return jdbc.queryForObject("INSERT INTO notification (id, title, message, type, is_read, created_at, user_id) "
+                + "VALUES (nextval('notification_seq'), ?, 'test', 'info', false, now(), ?) RETURNING id",
+                Long.class, title, userId);
+    }
+
+    private static String next(BlockingQueue<String> lines) throws InterruptedException {
+        String line = lines.poll(10, TimeUnit.SECONDS);
+        assertThat(line).as("ligne du flux").isNotNull();
+        return line;
+    }
+}
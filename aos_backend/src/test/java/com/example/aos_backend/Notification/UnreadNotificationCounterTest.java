@@ -0,0 +1,110 @@
+package com.example.aos_backend.Notification;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.aos_backend.DemandeFixtures;
+import com.example.aos_backend.PostgresTestSupport;
+
+/**
+ * Le compteur de non lues reste égal à la base : deux marquages
+ * concurrents de la même notification ne décrémentent qu'une fois, et une
+ * notification arrivée pendant un marquage en masse reste comptée.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class UnreadNotificationCounterTest extends PostgresTestSupport {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private int userId;
+
+    @BeforeEach
+    void seed() {
+        userId = new DemandeFixtures(jdbc).user("Ana");
+    }
+
+    @Test
+    void concurrentMarkAsReadDecrementsOnce() throws Exception {
+        long id = unread("Demande acceptée");
+        unread("Demande refusée");
+        assertThat(notificationService.getUnreadNotificationCount(userId)).isEqualTo(2);
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Boolean>> tabs = List.of(
+                CompletableFuture.supplyAsync(() -> markAsRead(start, id)),
+                CompletableFuture.supplyAsync(() -> markAsRead(start, id)));
+        start.countDown();
+
+        for (CompletableFuture<Boolean> tab : tabs) {
+            assertThat(tab.get(30, TimeUnit.SECONDS)).isTrue();
+        }
+        assertThat(notificationService.getUnreadNotificationCount(userId)).isEqualTo(1).isEqualTo(unreadInDb());
+        assertThat(notificationService.markNotificationAsRead(id, userId + 1)).isFalse();
+    }
+
+    @Test
+    void deletingUnreadNotificationTwiceDecrementsOnce() {
+        long id = unread("Demande acceptée");
+        unread("Demande refusée");
+        assertThat(notificationService.getUnreadNotificationCount(userId)).isEqualTo(2);
+
+        assertThat(notificationService.deleteNotification(id, userId)).isTrue();
+        assertThat(notificationService.deleteNotification(id, userId)).isFalse();
+
+        assertThat(notificationService.getUnreadNotificationCount(userId)).isEqualTo(1);
+    }
+
+    @Test
+    void notificationCommittedDuringMarkAllStaysCounted() {
+        unread("Demande acceptée");
+        assertThat(notificationService.getUnreadNotificationCount(userId)).isEqualTo(1);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            notificationService.markAllNotificationsAsRead(userId);
+            // Autre connexion, validée avant le commit du marquage
+            CompletableFuture.runAsync(() -> unread("Demande mise à jour")).join();
+        });
+
+        assertThat(unreadInDb()).isEqualTo(1);
+        assertThat(notificationService.getUnreadNotificationCount(userId)).isEqualTo(1);
+    }
+
+    private boolean markAsRead(CountDownLatch start, long id) {
+        try {
+            start.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        return notificationService.markNotificationAsRead(id, userId);
+    }
+
+    private long unread(String title) {
+        return jdbc.queryForObject("INSERT INTO notification (id, title, message, type, is_read, created_at, user_id) "
+                + "VALUES (nextval('notification_seq'), ?, 'test', 'info', false, now(), ?) RETURNING id",
+                Long.class, title, userId);
+    }
+
+    private long unreadInDb() {
+        return jdbc.queryForObject("SELECT count(*) FROM notification WHERE user_id = ? AND is_read = false",
+                Long.class, userId);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.aos_backend;
+
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Base des tests qui démarrent l'application sur PostgreSQL (le schéma
+ * complémentaire, la recherche plein texte et LISTEN/NOTIFY n'existent que
+ * là).
+ *
+ * La base vient de -Dtest.postgres.url (avec test.postgres.username et
+ * test.postgres.password), sinon d'un conteneur Testcontainers partagé par
+ * tous les tests. Sans l'un ni l'autre, les tests sont ignorés. Hibernate
+ * recrée le schéma à chaque contexte (create-drop) : la base fournie doit
+ * être une base jetable.
+ */
+public abstract class PostgresTestSupport {
+
+    private static PostgreSQLContainer<?> container;
+
+    @BeforeAll
+    static void requirePostgres() {
+        Assumptions.assumeTrue(isAvailable(), "PostgreSQL indisponible : ni Docker ni -Dtest.postgres.url");
+    }
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        applicationProperties().forEach((name, value) -> registry.add(name, () -> value));
+    }
+
+    public static boolean isAvailable() {
+        return System.getProperty("test.postgres.url") != null || DockerClientFactory.instance().isDockerAvailable();
+    }
+
+    /**
+     * Propriétés nécessaires au démarrage de l'application sur la base de
+     * test ; sert aussi aux tests qui démarrent plusieurs contextes.
+     */
+    public static synchronized Map<String, Object> applicationProperties() {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        String url = System.getProperty("test.postgres.url");
+        if (url != null) {
+            properties.put("SPRING_DATASOURCE_URL", url);
+            properties.put("SPRING_DATASOURCE_USERNAME", System.getProperty("test.postgres.username", "postgres"));
+            properties.put("SPRING_DATASOURCE_PASSWORD", System.getProperty("test.postgres.password", ""));
+        } else {
+            if (container == null) {
+                container = new PostgreSQLContainer<>("postgres:16-alpine");
+                container.start();
+            }
+            properties.put("SPRING_DATASOURCE_URL", container.getJdbcUrl());
+            properties.put("SPRING_DATASOURCE_USERNAME", container.getUsername());
+            properties.put("SPRING_DATASOURCE_PASSWORD", container.getPassword());
+        }
+        properties.put("SENDGRID_API_KEY", "test");
+        properties.put("JWT_SECRET_KEY", Base64.getEncoder().encodeToString(new byte[64]));
+        properties.put("spring.devtools.restart.enabled", "false");
+        return properties;
+    }
+}
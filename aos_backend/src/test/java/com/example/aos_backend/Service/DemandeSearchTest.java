@@ -0,0 +1,49 @@
+package com.example.aos_backend.Service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.aos_backend.DemandeFixtures;
+import com.example.aos_backend.PostgresTestSupport;
+import com.example.aos_backend.dto.CursorPageDTO;
+import com.example.aos_backend.dto.DemandeSearchResultDTO;
+
+/**
+ * Les extraits de la recherche sont du HTML sûr : texte du demandeur
+ * échappé, seuls les termes trouvés sont balisés.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class DemandeSearchTest extends PostgresTestSupport {
+
+    @Autowired
+    private DemandeService demandeService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void highlightEscapesRequesterText() {
+        DemandeFixtures fixtures = new DemandeFixtures(jdbc);
+        fixtures.clearDemandes();
+        int demandeId = fixtures.demande(LocalDateTime.now(), "EN_ATTENTE", fixtures.user("Ana"),
+                fixtures.service("Transport"), null);
+        jdbc.update("UPDATE demande SET description = ?, commentaire = ? WHERE id = ?",
+                "Remboursement trottinette \"urgent\" & <script>alert(1)</script>",
+                "Trottinette électrique < 500 DH", demandeId);
+
+        CursorPageDTO<DemandeSearchResultDTO> page = demandeService.searchDemandes("trottinette", null, 10, null,
+                null, null);
+
+        assertThat(page.getItems()).hasSize(1);
+        String highlight = page.getItems().get(0).getHighlight();
+        assertThat(highlight).contains("<mark>trottinette</mark>", "&quot;urgent&quot; &amp;", "…", "électrique")
+                .doesNotContain("<script", "\u0002", "\u0003");
+        assertThat(highlight.replace("<mark>", "").replace("</mark>", "")).doesNotContain("<", ">");
+    }
+}
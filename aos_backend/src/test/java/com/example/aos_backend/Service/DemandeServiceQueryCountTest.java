@@ -0,0 +1,95 @@
+package com.example.aos_backend.Service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.aos_backend.DemandeFixtures;
+import com.example.aos_backend.PostgresTestSupport;
+import com.example.aos_backend.SqlStatementRecorder;
+import com.example.aos_backend.dto.CursorPageDTO;
+import com.example.aos_backend.dto.DemandeDTO;
+
+/**
+ * Lectures de DemandeDTO par projections : nombre de requêtes fixe quel que
+ * soit le nombre de demandes, et jamais la colonne content (grand objet)
+ * des documents.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.aos_backend.SqlStatementRecorder")
+class DemandeServiceQueryCountTest extends PostgresTestSupport {
+
+    private static final Pattern CONTENT_COLUMN = Pattern.compile("\\bcontent\\b", Pattern.CASE_INSENSITIVE);
+
+    @Autowired
+    private DemandeService demandeService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private int assigneeId;
+
+    @BeforeEach
+    void seed() {
+        DemandeFixtures fixtures = new DemandeFixtures(jdbc);
+        fixtures.clearDemandes();
+        int[] users = { fixtures.user("Ana"), fixtures.user("Badr"), fixtures.user("Chama") };
+        long[] services = { fixtures.service("Transport"), fixtures.service("Logement") };
+        assigneeId = fixtures.user("Support");
+        LocalDateTime start = LocalDateTime.of(2026, 1, 1, 8, 0);
+        for (int i = 0; i < 45; i++) {
+            int id = fixtures.demande(start.plusHours(i), "EN_COURS", users[i % users.length],
+                    services[i % services.length], i % 2 == 0 ? assigneeId : null);
+            fixtures.document(id, "justificatif", new byte[2048]);
+            fixtures.document(id, "justificatif", new byte[2048]);
+            if (i % 3 == 0) {
+                fixtures.document(id, "reponse", new byte[1024]);
+            }
+        }
+    }
+
+    @Test
+    void pagesReadRowsAndDocumentsInTwoStatements() {
+        AtomicReference<CursorPageDTO<DemandeDTO>> first = new AtomicReference<>();
+        List<String> firstPage = SqlStatementRecorder.record(
+                () -> first.set(demandeService.getDemandesPage(null, 20, null, null, null)));
+        List<String> secondPage = SqlStatementRecorder.record(
+                () -> demandeService.getDemandesPage(first.get().getNextCursor(), 20, null, null, null));
+
+        assertThat(first.get().getItems()).hasSize(20);
+        assertThat(first.get().getItems()).allSatisfy(demande -> assertThat(demande.getDocumentsJustificatifs()).hasSize(2));
+        assertThat(firstPage).hasSize(2);
+        assertThat(secondPage).hasSize(2);
+        assertNoContentColumn(firstPage);
+        assertNoContentColumn(secondPage);
+    }
+
+    @Test
+    void otherReadsDoNotDependOnRowCount() {
+        List<String> all = SqlStatementRecorder.record(() -> assertThat(demandeService.getAllDemandes()).hasSize(45));
+        List<String> recent = SqlStatementRecorder.record(() -> demandeService.getRecentDemandes(5));
+        List<String> assigned = SqlStatementRecorder.record(
+                () -> assertThat(demandeService.getRequestsAssignedToUser(assigneeId)).hasSize(23));
+
+        assertThat(all).hasSize(2);
+        assertThat(recent).hasSize(2);
+        // Existence de l'utilisateur, puis lignes et documents
+        assertThat(assigned).hasSize(3);
+        assertNoContentColumn(all);
+        assertNoContentColumn(recent);
+        assertNoContentColumn(assigned);
+    }
+
+    private static void assertNoContentColumn(List<String> statements) {
+        assertThat(statements).noneMatch(sql -> CONTENT_COLUMN.matcher(sql).find());
+    }
+}
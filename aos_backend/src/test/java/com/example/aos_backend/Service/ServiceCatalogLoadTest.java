@@ -0,0 +1,191 @@
+package com.example.aos_backend.Service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.aos_backend.PostgresTestSupport;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Chargement du catalogue des services avant et après le passage des
+ * attributs propres au type en JSONB :
+ * <ul>
+ * <li>lecture historique : service joint aux six tables par type (héritage
+ * JOINED), reconstituées dans le schéma {@code legacy_catalog} à partir
+ * des attributs ;</li>
+ * <li>lecture actuelle : une ligne par service, attributs en JSONB ;</li>
+ * <li>reconstruction complète de l'instantané (ServiceCatalog), cache de
+ * second niveau vidé à chaque appel.</li>
+ * </ul>
+ * Affiche médiane et p95 par taille de catalogue.
+ *
+ * Lancé seulement avec -Dloadtests=true :
+ * mvn test -Dtest=ServiceCatalogLoadTest -Dloadtests=true [-Dtest.postgres.url=...]
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@EnabledIfSystemProperty(named = "loadtests", matches = "true")
+class ServiceCatalogLoadTest extends PostgresTestSupport {
+
+    private static final int[] CATALOG_SIZES = { 20, 200, 2_000 };
+    private static final int WARMUP_CALLS = 50;
+    private static final int MEASURED_CALLS = 300;
+
+    private static final String FLAT_READ = "SELECT s.id, s.nom, s.type, s.is_active, s.sla_hours, s.attributes, "
+            + "i.id, i.icon, i.title, i.description FROM service s LEFT JOIN service_info i ON i.id = s.service_info_id";
+
+    // Requête de Hibernate 6 pour findAll() avec l'héritage JOINED
+    private static final String LEGACY_READ = "SELECT s.id, CASE WHEN t1.id IS NOT NULL THEN 1 "
+            + "WHEN t2.id IS NOT NULL THEN 2 WHEN t3.id IS NOT NULL THEN 3 WHEN t4.id IS NOT NULL THEN 4 "
+            + "WHEN t5.id IS NOT NULL THEN 5 WHEN t6.id IS NOT NULL THEN 6 ELSE 0 END, "
+            + "s.nom, s.type, s.is_active, s.sla_hours, i.id, i.icon, i.title, i.description, "
+            + "t1.trajet, t1.point_depart, t1.point_arrivee, t1.frequence, t2.type_soin, t2.montant, "
+            + "t3.type_logement, t3.localisation_souhaitee, t3.montant_participation, "
+            + "t4.nombre_enfants, t4.lieu_souhaite, t4.periode, t5.niveau, t5.type_aide, t5.montant_demande, "
+            + "t6.type_activite, t6.nom_activite, t6.date_activite "
+            + "FROM service s "
+            + "LEFT JOIN legacy_catalog.transport_service t1 ON t1.id = s.id "
+            + "LEFT JOIN legacy_catalog.sante_sociale_service t2 ON t2.id = s.id "
+            + "LEFT JOIN legacy_catalog.logement_service t3 ON t3.id = s.id "
+            + "LEFT JOIN legacy_catalog.colonie_vacance_service t4 ON t4.id = s.id "
+            + "LEFT JOIN legacy_catalog.appui_scolaire_service t5 ON t5.id = s.id "
+            + "LEFT JOIN legacy_catalog.activite_culturelle_sportive_service t6 ON t6.id = s.id "
+            + "LEFT JOIN service_info i ON i.id = s.service_info_id";
+
+    @Autowired
+    private ServiceCatalog serviceCatalog;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @AfterEach
+    void dropLegacyTables() {
+        jdbc.execute("DROP SCHEMA IF EXISTS legacy_catalog CASCADE");
+    }
+
+    @Test
+    void flattenedCatalogLoadsFasterThanJoinedSubtypes() {
+        Map<Integer, double[][]> results = new LinkedHashMap<>();
+        for (int size : CATALOG_SIZES) {
+            int count = growCatalogTo(size);
+            createLegacyTables();
+            results.put(count, new double[][] {
+                    measure(() -> read(LEGACY_READ)),
+                    measure(() -> read(FLAT_READ)),
+                    measure(this::coldRebuild) });
+        }
+
+        System.out.printf("%n%-10s%22s%22s%22s%n", "services", "JOINED (historique)", "JSONB", "rebuild à froid");
+        results.forEach((count, timings) -> System.out.printf("%-10d%22s%22s%22s%n", count,
+                format(timings[0]), format(timings[1]), format(timings[2])));
+
+        double[][] largest = results.values().stream().reduce((first, second) -> second).orElseThrow();
+        assertThat(largest[1][0]).isLessThan(largest[0][0]);
+    }
+
+    // Ajoute des services de tous les types jusqu'à la taille voulue ; retourne la taille obtenue
+    private int growCatalogTo(int size) {
+        int missing = size - jdbc.queryForObject("SELECT count(*) FROM service", Integer.class);
+        if (missing > 0) {
+            jdbc.update("WITH info AS (INSERT INTO service_info (icon, title, description) "
+                    + "SELECT 'icon', 'Service ' || g || ' ' || gen_random_uuid(), 'Description du service ' || g "
+                    + "FROM generate_series(1, ?) g RETURNING id) "
+                    + "INSERT INTO service (nom, type, service_info_id, is_active, sla_hours, attributes) "
+                    + "SELECT 'Service ' || id, t.type, id, true, 72, t.attributes::jsonb FROM info "
+                    + "JOIN (VALUES (0, 'TransportService', '{\"trajet\": \"Casa-Rabat\", \"pointDepart\": \"Casa\", "
+                    + "\"pointArrivee\": \"Rabat\", \"frequence\": \"Quotidien\"}'), "
+                    + "(1, 'SanteSocialeService', '{\"typeSoin\": \"Consultation\", \"montant\": 350.0}'), "
+                    + "(2, 'LogementService', '{\"typeLogement\": \"Studio\", \"localisationSouhaitee\": \"Rabat\", "
+                    + "\"montantParticipation\": 1200.0}'), "
+                    + "(3, 'ColonieVacanceService', '{\"nombreEnfants\": 2, \"lieuSouhaite\": \"Ifrane\", "
+                    + "\"periode\": \"Juillet\"}'), "
+                    + "(4, 'AppuiScolaireService', '{\"niveau\": \"Lycée\", \"typeAide\": \"Fournitures\", "
+                    + "\"montantDemande\": 800.0}'), "
+                    + "(5, 'ActiviteCulturelleSportiveService', '{\"typeActivite\": \"Sport\", "
+                    + "\"nomActivite\": \"Natation\", \"dateActivite\": \"2026-07-01\"}')) "
+                    + "AS t(n, type, attributes) ON t.n = id % 6", missing);
+        }
+        jdbc.execute("ANALYZE service");
+        jdbc.execute("ANALYZE service_info");
+        return jdbc.queryForObject("SELECT count(*) FROM service", Integer.class);
+    }
+
+    // Tables par type telles qu'avant la reprise, remplies depuis service.attributes
+    private void createLegacyTables() {
+        jdbc.execute("DROP SCHEMA IF EXISTS legacy_catalog CASCADE");
+        jdbc.execute("CREATE SCHEMA legacy_catalog");
+        legacyTable("transport_service", "TransportService",
+                "trajet varchar(255), point_depart varchar(255), point_arrivee varchar(255), frequence varchar(255)",
+                "a->>'trajet', a->>'pointDepart', a->>'pointArrivee', a->>'frequence'");
+        legacyTable("sante_sociale_service", "SanteSocialeService",
+                "type_soin varchar(255), montant float8",
+                "a->>'typeSoin', (a->>'montant')::float8");
+        legacyTable("logement_service", "LogementService",
+                "type_logement varchar(255), localisation_souhaitee varchar(255), montant_participation float8",
+                "a->>'typeLogement', a->>'localisationSouhaitee', (a->>'montantParticipation')::float8");
+        legacyTable("colonie_vacance_service", "ColonieVacanceService",
+                "nombre_enfants integer, lieu_souhaite varchar(255), periode varchar(255)",
+                "(a->>'nombreEnfants')::integer, a->>'lieuSouhaite', a->>'periode'");
+        legacyTable("appui_scolaire_service", "AppuiScolaireService",
+                "niveau varchar(255), type_aide varchar(255), montant_demande float8",
+                "a->>'niveau', a->>'typeAide', (a->>'montantDemande')::float8");
+        legacyTable("activite_culturelle_sportive_service", "ActiviteCulturelleSportiveService",
+                "type_activite varchar(255), nom_activite varchar(255), date_activite date",
+                "a->>'typeActivite', a->>'nomActivite', (a->>'dateActivite')::date");
+    }
+
+    private void legacyTable(String table, String type, String columns, String values) {
+        jdbc.execute("CREATE TABLE legacy_catalog." + table + " (id bigint PRIMARY KEY REFERENCES service (id), "
+                + columns + ")");
+        jdbc.update("INSERT INTO legacy_catalog." + table + " SELECT id, " + values
+                + " FROM (SELECT id, attributes AS a FROM service WHERE type = ?) s", type);
+        jdbc.execute("ANALYZE legacy_catalog." + table);
+    }
+
+    private void read(String sql) {
+        jdbc.query(sql, rs -> {
+            int columns = rs.getMetaData().getColumnCount();
+            for (int i = 1; i <= columns; i++) {
+                rs.getObject(i);
+            }
+        });
+    }
+
+    private void coldRebuild() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        serviceCatalog.rebuild();
+    }
+
+    // { médiane, p95 } en millisecondes
+    private static double[] measure(Runnable call) {
+        for (int i = 0; i < WARMUP_CALLS; i++) {
+            call.run();
+        }
+        double[] millis = new double[MEASURED_CALLS];
+        for (int i = 0; i < MEASURED_CALLS; i++) {
+            long start = System.nanoTime();
+            call.run();
+            millis[i] = (System.nanoTime() - start) / 1_000_000.0;
+        }
+        Arrays.sort(millis);
+        return new double[] { millis[MEASURED_CALLS / 2], millis[MEASURED_CALLS * 95 / 100] };
+    }
+
+    private static String format(double[] timing) {
+        return String.format("%8.2f /%7.2f", timing[0], timing[1]);
+    }
+}
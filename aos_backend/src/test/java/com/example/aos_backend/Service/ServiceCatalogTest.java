@@ -0,0 +1,51 @@
+package com.example.aos_backend.Service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.aos_backend.PostgresTestSupport;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Un service dont les attributs repris de l'ancien schéma ne passent plus
+ * la validation (date non ISO) reste dans le catalogue.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class ServiceCatalogTest extends PostgresTestSupport {
+
+    @Autowired
+    private ServiceCatalog serviceCatalog;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void legacyNonIsoDateDoesNotBreakRebuild() {
+        Long infoId = jdbc.queryForObject("INSERT INTO service_info (icon, title, description) "
+                + "VALUES ('icon', ?, 'test') RETURNING id", Long.class, "Natation " + UUID.randomUUID());
+        Long serviceId = jdbc.queryForObject("INSERT INTO service (nom, type, service_info_id, is_active, attributes) "
+                + "VALUES ('Natation', 'ActiviteCulturelleSportiveService', ?, true, "
+                + "'{\"typeActivite\": \"Sport\", \"dateActivite\": \"15/07/2024\"}'::jsonb) RETURNING id",
+                Long.class, infoId);
+
+        // Écrit hors de Hibernate : le cache de requêtes ne le sait pas
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        serviceCatalog.rebuild();
+
+        ServiceCatalog.Entry entry = serviceCatalog.byId(serviceId);
+        assertThat(entry).isNotNull();
+        assertThat(new String(entry.body(), StandardCharsets.UTF_8)).contains("\"dateActivite\":\"15/07/2024\"");
+    }
+}
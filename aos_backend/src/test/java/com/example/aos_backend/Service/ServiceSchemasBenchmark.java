@@ -0,0 +1,196 @@
+package com.example.aos_backend.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Lecture et liaison des attributs propres au type de service : registre
+ * ServiceSchemas contre l'ancien chemin de DemandeService (switch sur le
+ * type, cast vers la sous-classe JOINED, puis containsKey, cast et
+ * Double.valueOf(x.toString()) par champ), reproduit ici sur trois types.
+ *
+ * Le registre fait davantage que l'ancien chemin : conversion des valeurs
+ * lues, contrôle des noms et des options proposées à l'écriture.
+ *
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main ServiceSchemasBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceSchemasBenchmark {
+
+    @Param({ "TransportService", "LogementService", "ColonieVacanceService" })
+    public String type;
+
+    private Map<String, Object> stored;
+    private Map<String, Object> form;
+    private LegacyService legacyService;
+
+    @Setup
+    public void setUp() {
+        // Valeurs telles que Jackson les rend depuis le JSON du formulaire
+        form = switch (type) {
+            case "TransportService" -> Map.of("trajet", "Casa-Rabat", "pointDepart", "Casa", "pointArrivee", "Rabat",
+                    "frequence", "Quotidien");
+            case "LogementService" -> Map.of("typeLogement", "Studio", "localisationSouhaitee", "Rabat",
+                    "montantParticipation", 1200);
+            case "ColonieVacanceService" -> Map.of("nombreEnfants", 2, "lieuSouhaite", "Ifrane", "periode",
+                    "Juillet 2026");
+            default -> throw new IllegalArgumentException(type);
+        };
+        stored = ServiceSchemas.write(type, Map.of(), form);
+        legacyService = legacyBind();
+        if (!legacyExtract().equals(schemaRead())) {
+            throw new IllegalStateException("Les deux chemins ne lisent pas les mêmes valeurs : "
+                    + legacyExtract() + " / " + schemaRead());
+        }
+    }
+
+    @Benchmark
+    public Map<String, Object> schemaRead() {
+        return ServiceSchemas.read(type, stored);
+    }
+
+    @Benchmark
+    public Map<String, Object> schemaWrite() {
+        return ServiceSchemas.write(type, stored, form);
+    }
+
+    // Ancien DemandeService.extractServiceSpecificData
+    @Benchmark
+    public Map<String, Object> legacyExtract() {
+        Map<String, Object> data = new HashMap<>();
+        LegacyService service = legacyService;
+        switch (service.type) {
+            case "TransportService":
+                LegacyTransport transport = (LegacyTransport) service;
+                data.put("trajet", transport.trajet);
+                data.put("pointDepart", transport.pointDepart);
+                data.put("pointArrivee", transport.pointArrivee);
+                data.put("frequence", transport.frequence);
+                break;
+            case "LogementService":
+                LegacyLogement logement = (LegacyLogement) service;
+                data.put("typeLogement", logement.typeLogement);
+                data.put("localisationSouhaitee", logement.localisationSouhaitee);
+                data.put("montantParticipation", logement.montantParticipation);
+                break;
+            case "ColonieVacanceService":
+                LegacyColonie colonie = (LegacyColonie) service;
+                data.put("nombreEnfants", colonie.nombreEnfants);
+                data.put("lieuSouhaite", colonie.lieuSouhaite);
+                data.put("periode", colonie.periode);
+                break;
+        }
+        return data;
+    }
+
+    // Anciens DemandeService.process*ServiceData
+    @Benchmark
+    public LegacyService legacyBind() {
+        Map<String, Object> data = form;
+        switch (type) {
+            case "TransportService": {
+                LegacyTransport service = new LegacyTransport();
+                if (data.containsKey("trajet")) {
+                    service.trajet = (String) data.get("trajet");
+                }
+                if (data.containsKey("pointDepart")) {
+                    service.pointDepart = (String) data.get("pointDepart");
+                }
+                if (data.containsKey("pointArrivee")) {
+                    service.pointArrivee = (String) data.get("pointArrivee");
+                }
+                if (data.containsKey("frequence")) {
+                    service.frequence = (String) data.get("frequence");
+                }
+                return service;
+            }
+            case "LogementService": {
+                LegacyLogement service = new LegacyLogement();
+                if (data.containsKey("typeLogement")) {
+                    service.typeLogement = (String) data.get("typeLogement");
+                }
+                if (data.containsKey("localisationSouhaitee")) {
+                    service.localisationSouhaitee = (String) data.get("localisationSouhaitee");
+                }
+                if (data.containsKey("montantParticipation")) {
+                    service.montantParticipation = Double.valueOf(data.get("montantParticipation").toString());
+                }
+                return service;
+            }
+            case "ColonieVacanceService": {
+                LegacyColonie service = new LegacyColonie();
+                if (data.containsKey("nombreEnfants")) {
+                    service.nombreEnfants = Integer.valueOf(data.get("nombreEnfants").toString());
+                }
+                if (data.containsKey("lieuSouhaite")) {
+                    service.lieuSouhaite = (String) data.get("lieuSouhaite");
+                }
+                if (data.containsKey("periode")) {
+                    service.periode = (String) data.get("periode");
+                }
+                return service;
+            }
+            default:
+                throw new IllegalArgumentException(type);
+        }
+    }
+
+    // Sous-classes de l'ancien héritage JOINED, réduites à leurs champs
+    public static class LegacyService {
+        final String type;
+
+        LegacyService(String type) {
+            this.type = type;
+        }
+    }
+
+    static class LegacyTransport extends LegacyService {
+        String trajet;
+        String pointDepart;
+        String pointArrivee;
+        String frequence;
+
+        LegacyTransport() {
+            super("TransportService");
+        }
+    }
+
+    static class LegacyLogement extends LegacyService {
+        String typeLogement;
+        String localisationSouhaitee;
+        Double montantParticipation;
+
+        LegacyLogement() {
+            super("LogementService");
+        }
+    }
+
+    static class LegacyColonie extends LegacyService {
+        Integer nombreEnfants;
+        String lieuSouhaite;
+        String periode;
+
+        LegacyColonie() {
+            super("ColonieVacanceService");
+        }
+    }
+}
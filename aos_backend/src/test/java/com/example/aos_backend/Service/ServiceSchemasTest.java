@@ -0,0 +1,39 @@
+package com.example.aos_backend.Service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Conversion et validation à l'écriture seulement : une valeur reprise
+ * de l'ancien schéma (date saisie librement) se relit telle quelle.
+ */
+class ServiceSchemasTest {
+
+    private static final String ACTIVITE = "ActiviteCulturelleSportiveService";
+
+    @Test
+    void legacyNonIsoDateIsReadUnchanged() {
+        Map<String, Object> data = ServiceSchemas.read(ACTIVITE,
+                Map.of("typeActivite", "Sport", "nomActivite", "Natation", "dateActivite", "15/07/2024"));
+
+        assertThat(data).containsEntry("dateActivite", "15/07/2024").containsEntry("typeActivite", "Sport");
+    }
+
+    @Test
+    void legacyNumberStoredAsTextIsReadUnchanged() {
+        assertThat(ServiceSchemas.read("LogementService", Map.of("montantParticipation", "1 200 DH")))
+                .containsEntry("montantParticipation", "1 200 DH");
+    }
+
+    @Test
+    void writeStillRejectsNonIsoDate() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> ServiceSchemas.write(ACTIVITE, Map.of(), Map.of("dateActivite", "15/07/2024")));
+        assertThat(ServiceSchemas.write(ACTIVITE, Map.of("dateActivite", "15/07/2024"),
+                Map.of("dateActivite", "2024-07-15"))).containsEntry("dateActivite", "2024-07-15");
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.aos_backend.Service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.aos_backend.DemandeFixtures;
+import com.example.aos_backend.PostgresTestSupport;
+import com.example.aos_backend.Notification.NotificationService;
+import com.example.aos_backend.Repository.DemandeRepository;
+import com.example.aos_backend.Repository.DemandeTransitionRepository;
+import com.example.aos_backend.Util.HashedTimingWheel;
+
+/**
+ * Planificateur SLA sur deux instances partageant la base : une demande
+ * écrite hors de l'instance est planifiée au passage suivant, et un
+ * dépassement n'est signalé qu'une fois.
+ *
+ * Les deux instances sont construites à la main sur les beans du contexte ;
+ * celle du contexte ne repasse pas pendant le test.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties =
+        "app.sla.catch-up-interval-ms=3600000")
+class SlaSchedulerTest extends PostgresTestSupport {
+
+    @Autowired
+    private DemandeRepository demandeRepository;
+
+    @Autowired
+    private DemandeTransitionRepository transitionRepository;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private DemandeFixtures fixtures;
+    private int userId;
+    private long serviceId;
+
+    @BeforeEach
+    void seed() {
+        fixtures = new DemandeFixtures(jdbc);
+        fixtures.clearDemandes();
+        userId = fixtures.user("Ana");
+        serviceId = fixtures.service("Transport");
+    }
+
+    @Test
+    void demandeWrittenElsewhereIsScheduledOnCatchUp() {
+        SlaScheduler scheduler = instance();
+        scheduler.rebuild();
+
+        // Insérée directement en base, comme par l'application agents
+        int demandeId = fixtures.demande(LocalDateTime.now(), "EN_ATTENTE", userId, serviceId, null);
+        assertThat(wheel(scheduler).get(demandeId)).isNull();
+
+        scheduler.catchUp();
+
+        assertThat(wheel(scheduler).get(demandeId)).isNotNull();
+    }
+
+    @Test
+    void breachIsNotifiedOnceAcrossInstances() {
+        int demandeId = fixtures.demande(LocalDateTime.now().minusDays(3), "EN_ATTENTE", userId, serviceId, null);
+        SlaScheduler first = instance();
+        SlaScheduler second = instance();
+        first.rebuild();
+        second.rebuild();
+
+        first.tick();
+        second.tick();
+
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM demande_transition WHERE demande_id = ? "
+                + "AND type = 'SLA_DEPASSE'", Integer.class, demandeId)).isEqualTo(1);
+        assertThat(jdbc.queryForObject("SELECT sla_breach_notified_at IS NOT NULL FROM demande WHERE id = ?",
+                Boolean.class, demandeId)).isTrue();
+    }
+
+    @Test
+    void newStatutCanBreachAgain() {
+        LocalDateTime submitted = LocalDateTime.now().minusDays(10);
+        int demandeId = fixtures.demande(submitted, "EN_ATTENTE", userId, serviceId, null);
+
+        assertThat(claim(demandeId, "EN_ATTENTE", submitted)).isEqualTo(1);
+        assertThat(claim(demandeId, "EN_ATTENTE", submitted)).isZero();
+        // Statut changé depuis l'échéance : rien à signaler
+        assertThat(claim(demandeId, "EN_COURS", submitted)).isZero();
+
+        jdbc.update("UPDATE demande SET statut = 'EN_COURS' WHERE id = ?", demandeId);
+        assertThat(claim(demandeId, "EN_COURS", LocalDateTime.now().plusSeconds(1))).isEqualTo(1);
+    }
+
+    private int claim(int demandeId, String statut, LocalDateTime enteredAt) {
+        return transactionTemplate.execute(status -> demandeRepository.claimSlaBreach(demandeId, statut, enteredAt,
+                LocalDateTime.now().plusSeconds(1)));
+    }
+
+    private SlaScheduler instance() {
+        SlaScheduler scheduler = new SlaScheduler(demandeRepository, transitionRepository, notificationService,
+                transactionTemplate);
+        ReflectionTestUtils.setField(scheduler, "enAttenteHours", 48L);
+        ReflectionTestUtils.setField(scheduler, "enCoursHours", 120L);
+        ReflectionTestUtils.setField(scheduler, "tickMs", 1_000L);
+        ReflectionTestUtils.setField(scheduler, "wheelSize", 64);
+        scheduler.init();
+        return scheduler;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HashedTimingWheel<Integer, ?> wheel(SlaScheduler scheduler) {
+        return (HashedTimingWheel<Integer, ?>) ReflectionTestUtils.getField(scheduler, "wheel");
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.aos_backend;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Relève les requêtes SQL préparées par Hibernate sur le thread courant,
+ * pendant {@link #record}. À déclarer par la propriété
+ * hibernate.session_factory.statement_inspector ; les tâches de fond des
+ * autres threads ne sont pas comptées.
+ */
+public class SqlStatementRecorder implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> RECORDED = new ThreadLocal<>();
+
+    public static List<String> record(Runnable action) {
+        List<String> statements = new ArrayList<>();
+        RECORDED.set(statements);
+        try {
+            action.run();
+        } finally {
+            RECORDED.remove();
+        }
+        return statements;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        List<String> statements = RECORDED.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+}
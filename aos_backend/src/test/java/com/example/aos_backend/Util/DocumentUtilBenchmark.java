@@ -0,0 +1,109 @@
+package com.example.aos_backend.Util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encodage d'un envoi : compression adaptative de DocumentUtil contre
+ * l'ancien chemin (Deflater BEST_COMPRESSION neuf à chaque appel), par type
+ * de fichier. Le taux obtenu par chaque chemin est affiché au démarrage de
+ * chaque combinaison.
+ *
+ * PDF, JPEG et DOCX sont simulés par des octets aléatoires (incompressibles
+ * comme ces formats) ; le texte et le CSV par du texte répétitif.
+ *
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main DocumentUtilBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DocumentUtilBenchmark {
+
+    @Param({ "text/plain:64", "text/csv:2048", "application/pdf:512", "image/jpeg:2048",
+            "application/vnd.openxmlformats-officedocument.wordprocessingml.document:256" })
+    public String upload;
+
+    private String contentType;
+    private byte[] data;
+
+    @Setup
+    public void setUp() {
+        String[] parts = upload.split(":");
+        contentType = parts[0];
+        int size = Integer.parseInt(parts[1]) * 1024;
+        data = contentType.startsWith("text/") ? text(size) : random(size);
+
+        DocumentUtil.EncodedDocument adaptive = DocumentUtil.encode(data, contentType);
+        System.out.printf("%n%s (%d Kio) : adaptatif %s %.3f, historique %.3f%n", contentType, size / 1024,
+                adaptive.codec(), ratio(adaptive.data().length), ratio(legacyCompress(data).length));
+    }
+
+    @Benchmark
+    public DocumentUtil.EncodedDocument adaptive() {
+        return DocumentUtil.encode(data, contentType);
+    }
+
+    @Benchmark
+    public byte[] legacyBestCompression() {
+        return legacyCompress(data);
+    }
+
+    private double ratio(int storedLength) {
+        return (double) storedLength / data.length;
+    }
+
+    // Ancien DocumentUtil.compressDocument (end() ajouté : la fuite fausserait la mesure)
+    private static byte[] legacyCompress(byte[] data) {
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setLevel(Deflater.BEST_COMPRESSION);
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream(data.length);
+            byte[] buffer = new byte[4 * 1024];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(buffer);
+                outputStream.write(buffer, 0, count);
+            }
+            return outputStream.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] text(int size) {
+        Random random = new Random(42);
+        String[] words = { "demande", "service", "transport", "logement", "remboursement", "montant", "dossier",
+                "justificatif", "2026-10-18", "Casablanca", "Rabat", "EN_ATTENTE", "ACCEPTEE", ";", "\n" };
+        StringBuilder text = new StringBuilder(size + 32);
+        while (text.length() < size) {
+            text.append(words[random.nextInt(words.length)]).append(' ');
+        }
+        return text.substring(0, size).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] random(int size) {
+        byte[] bytes = new byte[size];
+        new Random(42).nextBytes(bytes);
+        return bytes;
+    }
+}
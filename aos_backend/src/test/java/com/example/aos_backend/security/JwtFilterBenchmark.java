@@ -0,0 +1,158 @@
+package com.example.aos_backend.security;
+
+import java.security.Key;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.aos_backend.Service.JwtService;
+import com.example.aos_backend.Service.UserDetailsServiceImpl;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Authentification d'une requête porteuse d'un JWT : ancien filtre (quatre
+ * analyses du token, clé décodée et parser construit à chaque analyse)
+ * contre JwtFilter, token absent ou présent dans VerifiedTokenCache.
+ *
+ * Le chargement de l'utilisateur est un bouchon en mémoire : le gain réel
+ * d'un token en cache comprend en plus les requêtes utilisateur + rôles et
+ * type d'utilisateur évitées.
+ *
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main JwtFilterBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[64]);
+
+    private final MockFilterChain chain = new MockFilterChain();
+    private MockHttpServletRequest request;
+    private String token;
+    private UserDetailsServiceImpl userDetailsService;
+    private JwtFilter cachedFilter;
+    private JwtFilter uncachedFilter;
+
+    @Setup
+    public void setUp() {
+        UserDetails user = User.withUsername("agent@aos.ma").password("x").roles("AGENT").build();
+        userDetailsService = new UserDetailsServiceImpl(null, null, null, null) {
+            @Override
+            public UserDetails loadUserByUsername(String email) {
+                return user;
+            }
+
+            @Override
+            public String getUserType(Integer userId) {
+                return "AGENT";
+            }
+        };
+
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 86_400_000L);
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+        token = jwtService.generateToken(user, 42, "AGENT");
+
+        cachedFilter = new JwtFilter(new JwtVerifier(jwtService, userDetailsService, tokenCache(60_000)));
+        // Durée de vie nulle : chaque requête refait la vérification complète
+        uncachedFilter = new JwtFilter(new JwtVerifier(jwtService, userDetailsService, tokenCache(0)));
+
+        request = new MockHttpServletRequest("GET", "/demandes/page");
+        request.addHeader("Authorization", "Bearer " + token);
+        try {
+            if (filter(uncachedFilter) == null || legacyFilter() == null) {
+                throw new IllegalStateException("Token refusé : le benchmark mesurerait un échec");
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Benchmark
+    public Authentication legacyFilter() {
+        try {
+            String email = legacyParse(token).getSubject();
+            UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+            // isTokenValid : sujet puis expiration, une analyse chacun
+            boolean valid = legacyParse(token).getSubject().equals(userDetails.getUsername())
+                    && !legacyParse(token).getExpiration().before(new Date());
+            if (valid) {
+                @SuppressWarnings("unchecked")
+                List<String> names = (List<String>) legacyParse(token).get("authorities");
+                List<GrantedAuthority> authorities = names.stream()
+                        .<GrantedAuthority>map(SimpleGrantedAuthority::new).toList();
+                SecurityContextHolder.getContext().setAuthentication(
+                        new UsernamePasswordAuthenticationToken(userDetails, null, authorities));
+            }
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Benchmark
+    public Authentication filterCacheMiss() throws Exception {
+        return filter(uncachedFilter);
+    }
+
+    @Benchmark
+    public Authentication filterCacheHit() throws Exception {
+        return filter(cachedFilter);
+    }
+
+    private Authentication filter(JwtFilter filter) throws Exception {
+        try {
+            chain.reset();
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    // Ancien JwtService.extractAllClaims
+    private static Claims legacyParse(String token) {
+        Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+    }
+
+    private static VerifiedTokenCache tokenCache(long ttlMillis) {
+        VerifiedTokenCache cache = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(cache, "ttlMillis", ttlMillis);
+        ReflectionTestUtils.setField(cache, "maxSize", 10_000);
+        return cache;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.aos_backend.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.User;
+
+import com.example.aos_backend.DemandeFixtures;
+import com.example.aos_backend.PostgresTestSupport;
+import com.example.aos_backend.Service.JwtService;
+
+/**
+ * Le type d'utilisateur vient de la base à chaque vérification, pas du
+ * claim émis à la connexion : un administrateur rétrogradé perd ses droits
+ * dès que ses tokens sortent du cache.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class JwtVerifierTest extends PostgresTestSupport {
+
+    @Autowired
+    private JwtVerifier jwtVerifier;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void userTypeClaimIsNotTrusted() {
+        DemandeFixtures fixtures = new DemandeFixtures(jdbc);
+        int supportId = fixtures.user("Support", "SUPPORT");
+
+        AuthenticatedUser user = jwtVerifier.verify(token(fixtures.email(supportId), supportId, "ADMIN"));
+
+        assertThat(user.userType()).isEqualTo("SUPPORT");
+        assertThat(user.isAdmin()).isFalse();
+    }
+
+    @Test
+    void demotedAdminLosesAdminOnceTokenIsEvicted() {
+        DemandeFixtures fixtures = new DemandeFixtures(jdbc);
+        int adminId = fixtures.user("Admin", "ADMIN");
+        String email = fixtures.email(adminId);
+        String token = token(email, adminId, "ADMIN");
+        assertThat(jwtVerifier.verify(token).isAdmin()).isTrue();
+
+        jdbc.update("DELETE FROM admin WHERE id = ?", adminId);
+        jdbc.update("INSERT INTO support (id) VALUES (?)", adminId);
+        verifiedTokenCache.invalidateUser(email);
+
+        assertThat(jwtVerifier.verify(token).isAdmin()).isFalse();
+    }
+
+    private String token(String email, int userId, String userType) {
+        return jwtService.generateToken(User.withUsername(email).password("x").roles(userType).build(), userId,
+                userType);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.aos_backend.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Seaux par IP et par compte : seuls les échecs sont décomptés.
+ */
+class LoginRateLimiterTest {
+
+    // 3 tentatives par IP, 2 par compte, rechargement lent (1 par minute)
+    private final LoginRateLimiter limiter = new LoginRateLimiter(64, 3, 1, 2, 1);
+
+    @Test
+    void failedAttemptsExhaustAccountRegardlessOfCase() {
+        assertThat(limiter.tryAcquire("10.0.0.1", "ana@test.ma")).isZero();
+        assertThat(limiter.tryAcquire("10.0.0.2", "ANA@test.ma")).isZero();
+
+        assertThat(limiter.tryAcquire("10.0.0.3", "Ana@Test.ma")).isPositive();
+    }
+
+    @Test
+    void successfulLoginsCostNothing() {
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire("10.0.0.1", "ana@test.ma")).isZero();
+            limiter.release("10.0.0.1", "ana@test.ma");
+        }
+    }
+
+    @Test
+    void rejectedAccountAttemptLeavesIpBucketUntouched() {
+        limiter.tryAcquire("10.0.0.1", "ana@test.ma");
+        limiter.tryAcquire("10.0.0.1", "ana@test.ma");
+        // Refusée par le seau du compte : l'IP garde son jeton
+        assertThat(limiter.tryAcquire("10.0.0.1", "ana@test.ma")).isPositive();
+
+        assertThat(limiter.tryAcquire("10.0.0.1", "bob@test.ma")).isZero();
+        assertThat(limiter.tryAcquire("10.0.0.1", "carla@test.ma")).isPositive();
+        assertThat(limiter.tryAcquire("10.0.0.2", "carla@test.ma")).isZero();
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.aos_backend.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.aos_backend.PostgresTestSupport;
+
+/**
+ * Deux envois concurrents du même contenu : celui qui perd la course sur
+ * la clé du blob garde sa propre transaction intacte.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties =
+        "app.storage.blob.type=database")
+class DatabaseBlobStoreTest extends PostgresTestSupport {
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void losingConcurrentUploadKeepsCallerTransaction() throws Exception {
+        byte[] content = ("justificatif " + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8);
+        String key = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+
+        // L'autre envoi a inséré la clé sans encore valider : notre INSERT l'attend puis tombe en doublon
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Void> other = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(
+                status -> {
+                    jdbc.update("INSERT INTO blob_content (blob_key, size, created_at) VALUES (?, ?, now())", key,
+                            content.length);
+                    inserted.countDown();
+                    await(commit);
+                }));
+        assertThat(inserted.await(10, TimeUnit.SECONDS)).isTrue();
+
+        Long found = transactionTemplate.execute(status -> {
+            CompletableFuture.delayedExecutor(500, TimeUnit.MILLISECONDS).execute(commit::countDown);
+            try {
+                assertThat(blobStore.put(new ByteArrayInputStream(content)).key()).isEqualTo(key);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            // La transaction de l'appelant (création du document) continue et se valide
+            return jdbc.queryForObject("SELECT count(*) FROM blob_content WHERE blob_key = ?", Long.class, key);
+        });
+
+        other.get(10, TimeUnit.SECONDS);
+        assertThat(found).isEqualTo(1);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -238,6 +238,16 @@ export class HeaderComponent implements OnInit {
     });
     this.loadNotifications();
     this.loadUnreadCount();
+    this.notificationService.notifications$.subscribe(notifications => {
+      if (notifications.length) {
+        this.notifications = [...notifications.filter(n => !this.notifications.some(m => m.id === n.id)),
+          ...this.notifications];
+      }
+    });
+    this.notificationService.unreadCount$.subscribe(count => {
+      this.unreadCount = count;
+    });
+    this.notificationService.connectStream();
   }
 
   loadNotifications(): void {
@@ -326,6 +336,7 @@ export class HeaderComponent implements OnInit {
   }
 
   logout(): void {
+    this.notificationService.disconnectStream();
     this.authService.logout();
     this.router.navigate(['/']);
   }
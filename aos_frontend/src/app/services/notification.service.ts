@@ -20,6 +20,8 @@ export class NotificationService {
   private apiUrl = `http://localhost:8089/AOS_MICEPP/notifications`;
   private unreadCountSubject = new BehaviorSubject<number>(0);
   private notificationsSubject = new BehaviorSubject<Notification[]>([]);
+  private stream?: EventSource;
+  private streamOpening = false;
 
   public unreadCount$ = this.unreadCountSubject.asObservable();
   public notifications$ = this.notificationsSubject.asObservable();
@@ -61,4 +63,52 @@ export class NotificationService {
   deleteNotification(notificationId: string): Observable<void> {
     return this.http.delete<void>(`${this.apiUrl}/${notificationId}`);
   }
+
+  /**
+   * Open the SSE notification stream.
+   * EventSource cannot send the Authorization header: the backend first sets
+   * a cookie scoped to the stream, which the browser resends with
+   * Last-Event-ID on every automatic reconnect.
+   */
+  connectStream(): void {
+    if (this.stream || this.streamOpening) {
+      return;
+    }
+    this.streamOpening = true;
+    this.http.post<void>(`${this.apiUrl}/stream-session`, {}, { withCredentials: true }).subscribe({
+      next: () => {
+        this.streamOpening = false;
+        this.openStream();
+      },
+      error: () => this.streamOpening = false
+    });
+  }
+
+  private openStream(): void {
+    const stream = new EventSource(`${this.apiUrl}/stream`, { withCredentials: true });
+    stream.addEventListener('notification', event => {
+      const notification = JSON.parse((event as MessageEvent).data) as Notification;
+      this.notificationsSubject.next([notification, ...this.notificationsSubject.value]);
+    });
+    stream.addEventListener('count', event => {
+      this.unreadCountSubject.next(JSON.parse((event as MessageEvent).data));
+    });
+    stream.onerror = () => {
+      // Rejected (cookie expired): the browser stops retrying, get a new cookie
+      if (stream.readyState === EventSource.CLOSED && this.stream === stream) {
+        this.stream = undefined;
+        setTimeout(() => this.connectStream(), 5000);
+      }
+    };
+    this.stream = stream;
+  }
+
+  /**
+   * Close the stream and clear its cookie (call before dropping the token)
+   */
+  disconnectStream(): void {
+    this.stream?.close();
+    this.stream = undefined;
+    this.http.delete<void>(`${this.apiUrl}/stream-session`, { withCredentials: true }).subscribe();
+  }
 }
@@ -1,5 +1,5 @@
 import { Injectable } from '@angular/core';
-import { HttpClient, HttpHeaders } from '@angular/common/http';
+import { HttpClient, HttpHeaders, HttpParams } from '@angular/common/http';
 import { Observable } from 'rxjs';
 import { RequestStatus, Service, ServiceRequest } from '../models/request.model';
 import { User, UserDTO } from '../models/user.model';
@@ -36,6 +36,18 @@ export interface Demande {
 
 }
 
+export interface DemandePage {
+  items: Demande[];
+  nextCursor: string | null;
+  hasMore: boolean;
+}
+
+export interface DemandePageFilters {
+  statut?: string;
+  serviceId?: number;
+  assignedToId?: number;
+}
+
 @Injectable({
   providedIn: 'root'
 })
@@ -55,6 +67,23 @@ export class RequestService {
     return this.http.get<Demande[]>(this.apiUrl);
   }
 
+  getRequestsPage(cursor: string | null, size: number = 20, filters: DemandePageFilters = {}): Observable<DemandePage> {
+    let params = new HttpParams().set('size', size);
+    if (cursor) {
+      params = params.set('cursor', cursor);
+    }
+    if (filters.statut) {
+      params = params.set('statut', filters.statut);
+    }
+    if (filters.serviceId != null) {
+      params = params.set('serviceId', filters.serviceId);
+    }
+    if (filters.assignedToId != null) {
+      params = params.set('assignedToId', filters.assignedToId);
+    }
+    return this.http.get<DemandePage>(`${this.apiUrl}/page`, { params });
+  }
+
   getRequestById(id: number): Observable<Demande> {
     return this.http.get<Demande>(`${this.apiUrl}/${id}`);
   }